@@ -0,0 +1,193 @@
+package com.inbest.backend.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-node cache bounded by entry count and age. Entries are kept in least-recently-used order and the
+ * eldest is dropped once {@code maxSize} is exceeded; expired entries are dropped when they are next read.
+ * Besides the Spring caches it also backs the user and verified-token caches, so there is one LRU with expiry.
+ */
+public class BoundedTtlCache extends AbstractValueAdaptingCache implements InstrumentedCache
+{
+    private final String name;
+    private final long ttlNanos;
+    private final int maxSize;
+    // Guarded by this
+    private final LinkedHashMap<Object, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedTtlCache(String name, Duration ttl, int maxSize)
+    {
+        super(true);
+        this.name = name;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        // Access order turns the map into an LRU list; the eldest entry is dropped once the cap is reached
+        this.entries = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest)
+            {
+                if (size() > BoundedTtlCache.this.maxSize)
+                {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache()
+    {
+        return this;
+    }
+
+    @Override
+    protected synchronized Object lookup(Object key)
+    {
+        Entry entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.storedAt >= ttlNanos)
+        {
+            entries.remove(key);
+            evictions.increment();
+            entry = null;
+        }
+        if (entry == null)
+        {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader)
+    {
+        Object stored = lookup(key);
+        if (stored != null)
+        {
+            return (T) fromStoreValue(stored);
+        }
+        // Loaded outside the lock; concurrent misses may load the same value twice
+        T value;
+        try
+        {
+            value = valueLoader.call();
+        }
+        catch (Exception e)
+        {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value)
+    {
+        if (maxSize <= 0)
+        {
+            return;
+        }
+        Entry entry = new Entry(toStoreValue(value), System.nanoTime());
+        synchronized (this)
+        {
+            entries.put(key, entry);
+        }
+        puts.increment();
+    }
+
+    @Override
+    public synchronized void evict(Object key)
+    {
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized boolean evictIfPresent(Object key)
+    {
+        return entries.remove(key) != null;
+    }
+
+    @Override
+    public synchronized void clear()
+    {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized boolean invalidate()
+    {
+        boolean notEmpty = !entries.isEmpty();
+        entries.clear();
+        return notEmpty;
+    }
+
+    @Override
+    public synchronized void evictByPrefix(String prefix)
+    {
+        entries.keySet().removeIf(key -> key instanceof String string && string.startsWith(prefix));
+    }
+
+    @Override
+    public synchronized long size()
+    {
+        return entries.size();
+    }
+
+    @Override
+    public long hitCount()
+    {
+        return hits.sum();
+    }
+
+    @Override
+    public long missCount()
+    {
+        return misses.sum();
+    }
+
+    @Override
+    public long putCount()
+    {
+        return puts.sum();
+    }
+
+    @Override
+    public long evictionCount()
+    {
+        return evictions.sum();
+    }
+
+    private static final class Entry
+    {
+        private final Object value;
+        private final long storedAt;
+
+        private Entry(Object value, long storedAt)
+        {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.inbest.backend.cache;
+
+import com.inbest.backend.event.PortfolioChangedEvent;
+import com.inbest.backend.event.ReadModelRefreshedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached reads when the data behind them changes. Portfolio changes are applied after the publishing
+ * transaction commits, so a concurrent read cannot put the pre-commit state back into the cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationListener
+{
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event)
+    {
+        String prefix = CacheNames.portfolioPrefix(event.portfolioId());
+        for (String name : CacheNames.PORTFOLIO_SCOPED)
+        {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof InstrumentedCache instrumentedCache)
+            {
+                instrumentedCache.evictByPrefix(prefix);
+            }
+            else if (cache != null)
+            {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * A refreshed snapshot means the metrics job wrote new rows; it writes position and portfolio metrics in
+     * the same run, so every cache filled from the metric tables is cleared.
+     */
+    @EventListener
+    public void onReadModelRefreshed(ReadModelRefreshedEvent event)
+    {
+        for (String name : CacheNames.METRIC_BACKED)
+        {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null)
+            {
+                cache.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.inbest.backend.cache;
+
+import java.util.List;
+
+/**
+ * Caches behind the read-mostly public endpoints. Keys of the portfolio-scoped caches start with
+ * {@code "<portfolioId>:"} so every entry of a portfolio can be evicted when it changes.
+ */
+public final class CacheNames
+{
+    public static final String PORTFOLIO_RETURNS = "portfolioReturns";
+    public static final String POSITION_RETURNS = "positionReturns";
+    public static final String PORTFOLIO_TRADES = "portfolioTrades";
+    public static final String PRICE_HISTORY = "priceHistory";
+
+    public static final List<String> PORTFOLIO_SCOPED = List.of(PORTFOLIO_RETURNS, POSITION_RETURNS, PORTFOLIO_TRADES);
+
+    // Filled from the metric tables, which only the metrics job writes
+    public static final List<String> METRIC_BACKED = List.of(PORTFOLIO_RETURNS, POSITION_RETURNS);
+
+    public static final List<String> ALL = List.of(PORTFOLIO_RETURNS, POSITION_RETURNS, PORTFOLIO_TRADES, PRICE_HISTORY);
+
+    private CacheNames()
+    {
+    }
+
+    public static String portfolioPrefix(int portfolioId)
+    {
+        return portfolioId + ":";
+    }
+}
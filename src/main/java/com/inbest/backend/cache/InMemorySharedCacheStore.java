@@ -0,0 +1,76 @@
+package com.inbest.backend.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link SharedCacheStore} held in this JVM. Stands in for an external store in tests and single-node
+ * setups, enabled with {@code cache.shared.type=in-memory}.
+ */
+public class InMemorySharedCacheStore implements SharedCacheStore
+{
+    private final Map<String, Map<Object, Entry>> caches = new ConcurrentHashMap<>();
+
+    @Override
+    public Object get(String cacheName, Object key)
+    {
+        Map<Object, Entry> entries = caches.get(cacheName);
+        Entry entry = entries != null ? entries.get(key) : null;
+        if (entry == null)
+        {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt >= 0)
+        {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, Duration ttl)
+    {
+        caches.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>())
+                .put(key, new Entry(value, System.nanoTime() + ttl.toNanos()));
+    }
+
+    @Override
+    public void evict(String cacheName, Object key)
+    {
+        Map<Object, Entry> entries = caches.get(cacheName);
+        if (entries != null)
+        {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    public void evictByPrefix(String cacheName, String prefix)
+    {
+        Map<Object, Entry> entries = caches.get(cacheName);
+        if (entries != null)
+        {
+            entries.keySet().removeIf(key -> key instanceof String string && string.startsWith(prefix));
+        }
+    }
+
+    @Override
+    public void clear(String cacheName)
+    {
+        caches.remove(cacheName);
+    }
+
+    private static final class Entry
+    {
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Object value, long expiresAt)
+        {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
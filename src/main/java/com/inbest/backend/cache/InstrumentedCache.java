@@ -0,0 +1,23 @@
+package com.inbest.backend.cache;
+
+/**
+ * Cache that counts its traffic since it was created, exported by {@link InstrumentedCacheMeterBinder},
+ * and can drop groups of entries that share a key prefix.
+ */
+public interface InstrumentedCache
+{
+    long size();
+
+    long hitCount();
+
+    long missCount();
+
+    long putCount();
+
+    long evictionCount();
+
+    /**
+     * Drops every entry whose key is a string starting with the prefix.
+     */
+    void evictByPrefix(String prefix);
+}
@@ -0,0 +1,60 @@
+package com.inbest.backend.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Publishes the standard {@code cache.gets}, {@code cache.puts}, {@code cache.evictions} and {@code cache.size}
+ * meters for an {@link InstrumentedCache}, plus {@code cache.shared.hits} for a {@link TwoLevelCache}.
+ */
+public class InstrumentedCacheMeterBinder extends CacheMeterBinder<InstrumentedCache>
+{
+    public InstrumentedCacheMeterBinder(InstrumentedCache cache, String cacheName, Iterable<Tag> tags)
+    {
+        super(cache, cacheName, tags);
+    }
+
+    @Override
+    protected Long size()
+    {
+        return getCache().size();
+    }
+
+    @Override
+    protected long hitCount()
+    {
+        return getCache().hitCount();
+    }
+
+    @Override
+    protected Long missCount()
+    {
+        return getCache().missCount();
+    }
+
+    @Override
+    protected Long evictionCount()
+    {
+        return getCache().evictionCount();
+    }
+
+    @Override
+    protected long putCount()
+    {
+        return getCache().putCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry)
+    {
+        if (getCache() instanceof TwoLevelCache twoLevelCache)
+        {
+            FunctionCounter.builder("cache.shared.hits", twoLevelCache, TwoLevelCache::sharedHitCount)
+                    .tags(getTagsWithCacheName())
+                    .description("Lookups the node-local tier missed and the shared tier answered")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.inbest.backend.cache;
+
+import java.time.Duration;
+
+/**
+ * Cache tier shared by every application node, consulted by {@link TwoLevelCache} when the node's own tier
+ * misses. Adapters for an external store (e.g. Redis) implement this; values are the caches' store values,
+ * so an adapter that leaves the JVM must serialize them.
+ */
+public interface SharedCacheStore
+{
+    /**
+     * Stored value, or {@code null} when the key is absent or expired.
+     */
+    Object get(String cacheName, Object key);
+
+    void put(String cacheName, Object key, Object value, Duration ttl);
+
+    void evict(String cacheName, Object key);
+
+    void evictByPrefix(String cacheName, String prefix);
+
+    void clear(String cacheName);
+}
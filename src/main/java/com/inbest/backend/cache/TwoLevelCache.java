@@ -0,0 +1,154 @@
+package com.inbest.backend.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Node-local {@link BoundedTtlCache} in front of a {@link SharedCacheStore}. Reads try the local tier, then
+ * the shared one, copying shared hits into the local tier; writes and evictions go to both. Evictions only
+ * reach this node's local tier, so other nodes may serve an entry until its local TTL runs out, which is
+ * why the local TTL is kept short.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache implements InstrumentedCache
+{
+    private final BoundedTtlCache local;
+    private final SharedCacheStore shared;
+    private final Duration sharedTtl;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+
+    public TwoLevelCache(BoundedTtlCache local, SharedCacheStore shared, Duration sharedTtl)
+    {
+        super(true);
+        this.local = local;
+        this.shared = shared;
+        this.sharedTtl = sharedTtl;
+    }
+
+    @Override
+    public String getName()
+    {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache()
+    {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key)
+    {
+        Object stored = local.lookup(key);
+        if (stored == null)
+        {
+            stored = shared.get(getName(), key);
+            if (stored != null)
+            {
+                sharedHits.increment();
+                local.put(key, stored);
+            }
+        }
+        if (stored == null)
+        {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader)
+    {
+        Object stored = lookup(key);
+        if (stored != null)
+        {
+            return (T) fromStoreValue(stored);
+        }
+        T value;
+        try
+        {
+            value = valueLoader.call();
+        }
+        catch (Exception e)
+        {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value)
+    {
+        local.put(key, value);
+        shared.put(getName(), key, toStoreValue(value), sharedTtl);
+    }
+
+    @Override
+    public void evict(Object key)
+    {
+        local.evict(key);
+        shared.evict(getName(), key);
+    }
+
+    @Override
+    public void clear()
+    {
+        local.clear();
+        shared.clear(getName());
+    }
+
+    @Override
+    public void evictByPrefix(String prefix)
+    {
+        local.evictByPrefix(prefix);
+        shared.evictByPrefix(getName(), prefix);
+    }
+
+    @Override
+    public long size()
+    {
+        return local.size();
+    }
+
+    @Override
+    public long hitCount()
+    {
+        return hits.sum();
+    }
+
+    @Override
+    public long missCount()
+    {
+        return misses.sum();
+    }
+
+    @Override
+    public long putCount()
+    {
+        return local.putCount();
+    }
+
+    @Override
+    public long evictionCount()
+    {
+        return local.evictionCount();
+    }
+
+    /**
+     * Reads the local tier missed but the shared tier answered.
+     */
+    public long sharedHitCount()
+    {
+        return sharedHits.sum();
+    }
+}
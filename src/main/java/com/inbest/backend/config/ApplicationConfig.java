@@ -1,6 +1,6 @@
 package com.inbest.backend.config;
 
-import com.inbest.backend.repository.UserRepository;
+import com.inbest.backend.service.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,11 +17,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 @RequiredArgsConstructor
 public class ApplicationConfig {
-    private final UserRepository repository;
+    private final UserCache userCache;
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> (UserDetails) repository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return username -> (UserDetails) userCache.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
     @Bean
     public AuthenticationProvider authenticationProvider() {
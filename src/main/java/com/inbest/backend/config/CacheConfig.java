@@ -0,0 +1,59 @@
+package com.inbest.backend.config;
+
+import com.inbest.backend.cache.*;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caches of {@link CacheNames}: a bounded, short-lived tier per node, backed by a {@link SharedCacheStore}
+ * when one is configured. Actuator binds every cache's hit, miss, put and eviction counts to the meter registry.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig
+{
+    @Bean
+    public CacheManager cacheManager(@Value("${cache.local.ttl-ms:30000}") long localTtlMillis,
+                                     @Value("${cache.local.max-size:1000}") int localMaxSize,
+                                     @Value("${cache.shared.ttl-ms:300000}") long sharedTtlMillis,
+                                     ObjectProvider<SharedCacheStore> sharedCacheStore)
+    {
+        SharedCacheStore shared = sharedCacheStore.getIfAvailable();
+        List<Cache> caches = new ArrayList<>();
+        for (String name : CacheNames.ALL)
+        {
+            BoundedTtlCache local = new BoundedTtlCache(name, Duration.ofMillis(localTtlMillis), localMaxSize);
+            caches.add(shared != null ? new TwoLevelCache(local, shared, Duration.ofMillis(sharedTtlMillis)) : local);
+        }
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.shared.type", havingValue = "in-memory")
+    public SharedCacheStore inMemorySharedCacheStore()
+    {
+        return new InMemorySharedCacheStore();
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<Cache> instrumentedCacheMeterBinderProvider()
+    {
+        return (cache, tags) -> cache instanceof InstrumentedCache instrumentedCache
+                ? new InstrumentedCacheMeterBinder(instrumentedCache, cache.getName(), tags)
+                : null;
+    }
+}
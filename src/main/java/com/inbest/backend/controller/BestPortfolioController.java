@@ -2,8 +2,10 @@ package com.inbest.backend.controller;
 
 import com.inbest.backend.model.response.BestPortfolioResponse;
 import com.inbest.backend.model.response.GenericResponse;
-import com.inbest.backend.service.BestPortfoliosService;
-import com.inbest.backend.service.PortfolioMetricService;
+import com.inbest.backend.model.response.LeaderboardResponse;
+import com.inbest.backend.service.LeaderboardSnapshotService;
+import com.inbest.backend.service.LeaderboardSnapshotService.Ranking;
+import com.inbest.backend.service.LeaderboardSnapshotService.Snapshot;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,45 +17,54 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BestPortfolioController {
 
-    private final BestPortfoliosService bestPortfoliosService;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final LeaderboardSnapshotService leaderboardSnapshotService;
 
     @GetMapping("/total-return")
-    public ResponseEntity<GenericResponse> getBestByTotalReturn() {
-        List<BestPortfolioResponse> result = bestPortfoliosService.getBestPortfoliosByTotalReturn();
-        return ResponseEntity.ok(new GenericResponse(
-                "success",
-                "Top 10 portfolios by total return",
-                result
-        ));
+    public ResponseEntity<GenericResponse> getBestByTotalReturn(@RequestParam(defaultValue = "0") int page,
+                                                                @RequestParam(defaultValue = "10") int size) {
+        return page(Ranking.TOTAL_RETURN, "total return", page, size);
     }
 
     @GetMapping("/daily-return")
-    public ResponseEntity<GenericResponse> getBestByDailyReturn() {
-        List<BestPortfolioResponse> result = bestPortfoliosService.getBestPortfoliosByDailyReturn();
-        return ResponseEntity.ok(new GenericResponse(
-                "success",
-                "Top 10 portfolios by daily return",
-                result
-        ));
+    public ResponseEntity<GenericResponse> getBestByDailyReturn(@RequestParam(defaultValue = "0") int page,
+                                                                @RequestParam(defaultValue = "10") int size) {
+        return page(Ranking.DAILY_RETURN, "daily return", page, size);
     }
 
     @GetMapping("/monthly-return")
-    public ResponseEntity<GenericResponse> getBestByMonthlyReturn() {
-        List<BestPortfolioResponse> result = bestPortfoliosService.getBestPortfoliosByMonthlyReturn();
-        return ResponseEntity.ok(new GenericResponse(
-                "success",
-                "Top 10 portfolios by monthly return",
-                result
-        ));
+    public ResponseEntity<GenericResponse> getBestByMonthlyReturn(@RequestParam(defaultValue = "0") int page,
+                                                                  @RequestParam(defaultValue = "10") int size) {
+        return page(Ranking.MONTHLY_RETURN, "monthly return", page, size);
     }
 
     @GetMapping("/hourly-return")
-    public ResponseEntity<GenericResponse> getBestByHourlyReturn() {
-        List<BestPortfolioResponse> result = bestPortfoliosService.getBestPortfoliosByHourlyReturn();
-        return ResponseEntity.ok(new GenericResponse(
+    public ResponseEntity<GenericResponse> getBestByHourlyReturn(@RequestParam(defaultValue = "0") int page,
+                                                                 @RequestParam(defaultValue = "10") int size) {
+        return page(Ranking.HOURLY_RETURN, "hourly return", page, size);
+    }
+
+    private ResponseEntity<GenericResponse> page(Ranking ranking, String label, int page, int size) {
+        if (page < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(new GenericResponse(
+                    "error",
+                    "page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE,
+                    null
+            ));
+        }
+
+        Snapshot snapshot = leaderboardSnapshotService.getSnapshot();
+        List<BestPortfolioResponse> result = snapshot.page(ranking, page, size);
+        String message = page == 0
+                ? "Top " + size + " portfolios by " + label
+                : "Portfolios by " + label + ", page " + page;
+        return ResponseEntity.ok(new LeaderboardResponse(
                 "success",
-                "Top 10 portfolios by hourly return",
-                result
+                message,
+                result,
+                snapshot.getVersion(),
+                snapshot.getGeneratedAt()
         ));
     }
 }
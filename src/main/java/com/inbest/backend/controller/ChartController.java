@@ -1,8 +1,10 @@
 package com.inbest.backend.controller;
 
 import com.inbest.backend.dto.DonutChartDTO;
+import com.inbest.backend.dto.PricePointDTO;
 import com.inbest.backend.model.response.GenericResponse;
 import com.inbest.backend.service.ChartService;
+import com.inbest.backend.service.TimeSeriesDownsampler;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -10,13 +12,15 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
-@RequestMapping("/api/charts/donut")
+@RequestMapping("/api/charts")
 @RequiredArgsConstructor
 public class ChartController {
 
+    private static final int MAX_PRICE_HISTORY_DAYS = 3650;
+
     private final ChartService chartService;
 
-    @GetMapping("/{portfolioId}")
+    @GetMapping("/donut/{portfolioId}")
     public ResponseEntity<GenericResponse> getDonutChartData(@PathVariable Long portfolioId) {
         List<DonutChartDTO> donutChartData = chartService.createDonutChartData(portfolioId);
 
@@ -28,4 +32,22 @@ public class ChartController {
 
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/price/{tickerSymbol}")
+    public ResponseEntity<GenericResponse> getPriceChartData(@PathVariable String tickerSymbol,
+                                                             @RequestParam(value = "days", defaultValue = "30") int days,
+                                                             @RequestParam(value = "points", defaultValue = "200") int points) {
+        if (days < 1 || days > MAX_PRICE_HISTORY_DAYS || points < 2 || points > TimeSeriesDownsampler.MAX_POINTS) {
+            return ResponseEntity.badRequest()
+                    .body(new GenericResponse("error", "Invalid days or points", null));
+        }
+
+        List<PricePointDTO> pricePoints = chartService.getPriceHistory(tickerSymbol, days, points);
+
+        return ResponseEntity.ok(new GenericResponse(
+                "success",
+                "Price chart data fetched successfully",
+                pricePoints
+        ));
+    }
 }
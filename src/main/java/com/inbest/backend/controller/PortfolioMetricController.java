@@ -4,7 +4,9 @@ import com.inbest.backend.dto.PortfolioReturnDTO;
 import com.inbest.backend.model.response.GenericResponse;
 import com.inbest.backend.model.response.PortfolioReturnResponse;
 import com.inbest.backend.model.response.PortfolioMetricResponse;
+import com.inbest.backend.service.BenchmarkSeriesService.ReturnWindow;
 import com.inbest.backend.service.PortfolioMetricService;
+import com.inbest.backend.service.TimeSeriesDownsampler;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -38,15 +40,21 @@ public class PortfolioMetricController {
     }
 
     @GetMapping("/weekly-returns")
-    public ResponseEntity<?> getWeeklyReturns(@RequestParam(value = "portfolioId") Integer portfolioId) {
+    public ResponseEntity<?> getWeeklyReturns(@RequestParam(value = "portfolioId") Integer portfolioId,
+                                               @RequestParam(value = "points", required = false) Integer points) {
         try {
             if (portfolioId <= 0) {
                 return ResponseEntity
                         .badRequest()
                         .body(new GenericResponse("error", "Invalid Portfolio Id", null));
             }
+            if (points != null && !isValidPointCount(points)) {
+                return ResponseEntity
+                        .badRequest()
+                        .body(new GenericResponse("error", "Invalid number of points", null));
+            }
 
-            List<PortfolioReturnResponse> returns = portfolioMetricService.getWeeklyReturns(portfolioId);
+            List<PortfolioReturnResponse> returns = portfolioMetricService.getReturns(portfolioId, ReturnWindow.WEEKLY, points);
             return ResponseEntity.ok(new GenericResponse("success", "Weekly returns retrieved successfully", returns));
         } catch (Exception e) {
             return ResponseEntity
@@ -56,15 +64,21 @@ public class PortfolioMetricController {
     }
 
     @GetMapping("/monthly-returns")
-    public ResponseEntity<?> getMonthlyReturns(@RequestParam(value = "portfolioId") Integer portfolioId) {
+    public ResponseEntity<?> getMonthlyReturns(@RequestParam(value = "portfolioId") Integer portfolioId,
+                                               @RequestParam(value = "points", required = false) Integer points) {
         try {
             if (portfolioId <= 0) {
                 return ResponseEntity
                         .badRequest()
                         .body(new GenericResponse("error", "Invalid Portfolio Id", null));
             }
+            if (points != null && !isValidPointCount(points)) {
+                return ResponseEntity
+                        .badRequest()
+                        .body(new GenericResponse("error", "Invalid number of points", null));
+            }
 
-            List<PortfolioReturnResponse> returns = portfolioMetricService.getMonthlyReturns(portfolioId);
+            List<PortfolioReturnResponse> returns = portfolioMetricService.getReturns(portfolioId, ReturnWindow.MONTHLY, points);
             return ResponseEntity.ok(new GenericResponse("success", "Monthly returns retrieved successfully", returns));
         } catch (Exception e) {
             return ResponseEntity
@@ -74,15 +88,21 @@ public class PortfolioMetricController {
     }
 
     @GetMapping("/yearly-returns")
-    public ResponseEntity<?> getYearlyReturns(@RequestParam(value = "portfolioId") Integer portfolioId) {
+    public ResponseEntity<?> getYearlyReturns(@RequestParam(value = "portfolioId") Integer portfolioId,
+                                              @RequestParam(value = "points", defaultValue = "" + PortfolioMetricService.DEFAULT_RETURN_POINTS) int points) {
         try {
             if (portfolioId <= 0) {
                 return ResponseEntity
                         .badRequest()
                         .body(new GenericResponse("error", "Invalid Portfolio Id", null));
             }
+            if (!isValidPointCount(points)) {
+                return ResponseEntity
+                        .badRequest()
+                        .body(new GenericResponse("error", "Invalid number of points", null));
+            }
 
-            List<PortfolioReturnDTO> returns = portfolioMetricService.getPortfolioReturns(portfolioId);
+            List<PortfolioReturnDTO> returns = portfolioMetricService.getPortfolioReturns(portfolioId, points);
             return ResponseEntity.ok(Map.of(
                     "status", "success",
                     "message", "Yearly returns retrieved successfully",
@@ -94,4 +114,8 @@ public class PortfolioMetricController {
                     .body(new GenericResponse("error", e.getMessage(), null));
         }
     }
+
+    private static boolean isValidPointCount(int points) {
+        return points >= 2 && points <= TimeSeriesDownsampler.MAX_POINTS;
+    }
 }
@@ -4,6 +4,7 @@ import com.inbest.backend.service.AuthenticationService;
 import com.inbest.backend.service.JwtService;
 import com.inbest.backend.service.PortfolioService;
 import com.inbest.backend.service.PortfolioStockMetricService;
+import com.inbest.backend.service.TimeSeriesDownsampler;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -44,9 +45,15 @@ public class PortfolioStockMetricController
     }
 
     @GetMapping("/daily/{portfolioId}")
-    public ResponseEntity<?> getDailyMetrics(@PathVariable int portfolioId) {
+    public ResponseEntity<?> getDailyMetrics(@PathVariable int portfolioId,
+                                             @RequestParam(value = "points", required = false) Integer points) {
         try {
-            List<Map<String, Object>> data = portfolioStockMetricService.getDailyMetrics(portfolioId);
+            if (points != null && (points < 2 || points > TimeSeriesDownsampler.MAX_POINTS)) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("status", "error", "message", "Invalid number of points."));
+            }
+
+            List<Map<String, Object>> data = portfolioStockMetricService.getDailyMetrics(portfolioId, points);
 
             if (data.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
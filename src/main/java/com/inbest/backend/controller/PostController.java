@@ -2,6 +2,7 @@ package com.inbest.backend.controller;
 
 import com.inbest.backend.dto.PostCreateDTO;
 import com.inbest.backend.dto.PostResponseDTO;
+import com.inbest.backend.dto.TrendingPostsPageDTO;
 import com.inbest.backend.service.PostService;
 import com.inbest.backend.exception.UserNotFoundException;
 import jakarta.validation.Valid;
@@ -210,8 +211,32 @@ public class PostController
 
     @GetMapping("/trending")
     public ResponseEntity<?> getTrendingPosts(
-            @RequestParam(defaultValue = "1") int page)
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(required = false) String cursor)
     {
+        if (cursor != null)
+        {
+            TrendingPostsPageDTO trendingPage;
+            try
+            {
+                trendingPage = postService.getTrendingPostsAfter(cursor, 10);
+            }
+            catch (IllegalArgumentException e)
+            {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "status", "error",
+                        "message", e.getMessage()
+                ));
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Trending posts fetched successfully");
+            response.put("data", trendingPage.getPosts());
+            response.put("nextCursor", trendingPage.getNextCursor());
+            return ResponseEntity.ok(response);
+        }
+
         if (page < 1) {
             return ResponseEntity.badRequest().body(Map.of(
                     "status", "error",
@@ -219,20 +244,21 @@ public class PostController
             ));
         }
 
-        List<PostResponseDTO> trendingPosts = postService.getTrendingPosts(page, 10);
+        TrendingPostsPageDTO trendingPage = postService.getTrendingPosts(page, 10);
         long totalPosts = postService.getTotalTrendingPostsCount();
         int totalPages = (int) Math.ceil((double) totalPosts / 10);
         int nextPage = page + 1 <= totalPages ? page + 1 : -1;
 
-        return ResponseEntity.ok(Map.of(
-                "status", "success",
-                "message", "Trending posts fetched successfully",
-                "data", trendingPosts,
-                "page", page,
-                "totalPosts", totalPosts,
-                "totalPages", totalPages,
-                "nextPage", nextPage
-        ));
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("message", "Trending posts fetched successfully");
+        response.put("data", trendingPage.getPosts());
+        response.put("page", page);
+        response.put("totalPosts", totalPosts);
+        response.put("totalPages", totalPages);
+        response.put("nextPage", nextPage);
+        response.put("nextCursor", trendingPage.getNextCursor());
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/me")
@@ -1,5 +1,6 @@
 package com.inbest.backend.controller;
 
+import com.inbest.backend.model.response.IngestionRunResponse;
 import com.inbest.backend.service.StockService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -18,8 +19,8 @@ public class StockController {
 
     @GetMapping("/data")
     public ResponseEntity<?> getHistoricalData() {
-        List<Map<String, Object>> data = stockService.getHistoricalData();
-        return ResponseEntity.ok(Map.of("result", data));
+        IngestionRunResponse run = stockService.getHistoricalData();
+        return ResponseEntity.ok(Map.of("result", run.getResults(), "metrics", run));
     }
 
     @GetMapping("/tickers")
@@ -3,6 +3,7 @@ package com.inbest.backend.controller;
 import com.inbest.backend.dto.UserUpdateDTO;
 import com.inbest.backend.dto.ChangePasswordDTO;
 import com.inbest.backend.exception.UserNotFoundException;
+import com.inbest.backend.model.AuthenticatedUser;
 import com.inbest.backend.model.User;
 import com.inbest.backend.repository.UserRepository;
 import com.inbest.backend.service.*;
@@ -22,6 +23,7 @@ import java.util.*;
 @RequiredArgsConstructor
 public class UserController
 {
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
 
     private final UserService userService;
     private final UserRepository userRepository;
@@ -89,8 +91,19 @@ public class UserController
 
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/search")
-    public ResponseEntity<?> searchUsers(@RequestParam String searchTerm, @AuthenticationPrincipal User currentUser)
+    public ResponseEntity<?> searchUsers(@RequestParam String searchTerm,
+                                         @RequestParam(defaultValue = "1") int page,
+                                         @RequestParam(defaultValue = "20") int size,
+                                         @AuthenticationPrincipal AuthenticatedUser currentUser)
     {
+        if (page < 1 || size < 1 || size > MAX_SEARCH_PAGE_SIZE)
+        {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", "error",
+                    "message", "page must be >= 1 and size between 1 and " + MAX_SEARCH_PAGE_SIZE
+            ));
+        }
+
         try
         {
             if (currentUser == null)
@@ -101,7 +114,7 @@ public class UserController
                 );
                 return ResponseEntity.status(401).body(errorResponse); // Unauthorized
             }
-            List<User> users = userService.searchUsers(searchTerm);
+            List<User> users = userService.searchUsers(searchTerm, page, size);
 
             if (users.isEmpty())
             {
@@ -125,7 +138,9 @@ public class UserController
             Map<String, Object> response = Map.of(
                     "status", "success",
                     "message", "Users found",
-                    "data", userList
+                    "data", userList,
+                    "page", page,
+                    "size", size
             );
 
             return ResponseEntity.ok(response);
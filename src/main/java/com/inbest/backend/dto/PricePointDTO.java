@@ -0,0 +1,17 @@
+package com.inbest.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricePointDTO
+{
+    private LocalDateTime date;
+    private BigDecimal price;
+}
@@ -0,0 +1,17 @@
+package com.inbest.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockQuoteDTO
+{
+    private String tickerSymbol;
+    private LocalDateTime date;
+    private double price;
+}
@@ -0,0 +1,17 @@
+package com.inbest.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingPostsPageDTO
+{
+    private List<PostResponseDTO> posts;
+    // Opaque position after the last post, null when there is nothing more to read
+    private String nextCursor;
+}
@@ -0,0 +1,8 @@
+package com.inbest.backend.event;
+
+/**
+ * Published when a creation, a trade, a settings change or a deletion alters what a portfolio's public reads return.
+ */
+public record PortfolioChangedEvent(int portfolioId)
+{
+}
@@ -0,0 +1,10 @@
+package com.inbest.backend.event;
+
+import com.inbest.backend.repository.ReadModelJdbcRepository.ReadModel;
+
+/**
+ * Published when a refresh changed rows of a read model, i.e. new portfolio metrics became visible.
+ */
+public record ReadModelRefreshedEvent(ReadModel model)
+{
+}
@@ -0,0 +1,35 @@
+package com.inbest.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal built from the signed claims of a JWT, so authenticated requests do not have to load the user row.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements AuthenticatedPrincipal
+{
+    private final Integer userId;
+    private final String username;
+    private final String role;
+    private final boolean enabled;
+    private final boolean verified;
+
+    @Override
+    public String getName()
+    {
+        return username;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities()
+    {
+        return List.of(new SimpleGrantedAuthority(role));
+    }
+}
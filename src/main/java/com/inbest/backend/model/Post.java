@@ -7,6 +7,7 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -63,5 +64,29 @@ public class Post
     @Column(name = "is_trending")
     private Boolean isTrending = false;
 
-
+    // Score decays by 5% per hour of age
+    private static final double HOURLY_DECAY = -Math.log(0.95);
+
+    /**
+     * Log-space trend key for (likes + 2 * comments) * 0.95^age. Age is measured from a fixed epoch instead of
+     * from now, which shifts every post by the same constant, so the ordering never changes over time and the
+     * key only has to be recomputed when likes or comments change. Posts without engagement get -Infinity.
+     */
+    public static double trendScore(int likeCount, int commentCount, LocalDateTime createdAt)
+    {
+        double engagement = likeCount + 2.0 * commentCount;
+        if (engagement <= 0)
+        {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double hoursSinceEpoch = createdAt.toEpochSecond(ZoneOffset.UTC) / 3600.0;
+        return Math.log(engagement) + HOURLY_DECAY * hoursSinceEpoch;
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void updateTrendScore()
+    {
+        trendScore = trendScore(likeCount, commentCount, createdAt != null ? createdAt : LocalDateTime.now());
+    }
 }
@@ -0,0 +1,127 @@
+package com.inbest.backend.model;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Growable pair of primitive columns holding an ascending time series: epoch-millisecond times and values.
+ * Rows are appended as they are read from a cursor, so a series costs 16 bytes per point instead of a DTO.
+ * Rows appended as {@link BigDecimal} also keep that value, so exact NUMERIC values can be returned for the
+ * points that survive downsampling while the arithmetic runs on the double column.
+ */
+public final class TimeSeries
+{
+    private long[] times;
+    private double[] values;
+    private BigDecimal[] decimals;
+    private int size;
+
+    public TimeSeries()
+    {
+        this(64);
+    }
+
+    public TimeSeries(int capacity)
+    {
+        times = new long[Math.max(capacity, 1)];
+        values = new double[Math.max(capacity, 1)];
+    }
+
+    public void add(long time, double value)
+    {
+        if (size == times.length)
+        {
+            times = Arrays.copyOf(times, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+            if (decimals != null)
+            {
+                decimals = Arrays.copyOf(decimals, size * 2);
+            }
+        }
+        times[size] = time;
+        values[size] = value;
+        size++;
+    }
+
+    public void add(long time, BigDecimal value)
+    {
+        add(time, value.doubleValue());
+        if (decimals == null)
+        {
+            decimals = new BigDecimal[times.length];
+        }
+        decimals[size - 1] = value;
+    }
+
+    public void add(LocalDateTime date, double value)
+    {
+        add(Timestamp.valueOf(date).getTime(), value);
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public long timeAt(int index)
+    {
+        return times[index];
+    }
+
+    public LocalDateTime dateAt(int index)
+    {
+        return new Timestamp(times[index]).toLocalDateTime();
+    }
+
+    public double valueAt(int index)
+    {
+        return values[index];
+    }
+
+    /**
+     * Value as it was appended, or the double value when the row was appended as one.
+     */
+    public BigDecimal decimalAt(int index)
+    {
+        BigDecimal decimal = decimals != null ? decimals[index] : null;
+        return decimal != null ? decimal : BigDecimal.valueOf(values[index]);
+    }
+
+    /**
+     * Backing time column; only the first {@link #size()} entries are meaningful and it must not be modified.
+     */
+    public long[] timeColumn()
+    {
+        return times;
+    }
+
+    /**
+     * Backing value column; only the first {@link #size()} entries are meaningful and it must not be modified.
+     */
+    public double[] valueColumn()
+    {
+        return values;
+    }
+
+    /**
+     * New series made of the rows at the given ascending indices.
+     */
+    public TimeSeries select(int[] indices)
+    {
+        TimeSeries selected = new TimeSeries(indices.length);
+        for (int index : indices)
+        {
+            if (decimals != null && decimals[index] != null)
+            {
+                selected.add(times[index], decimals[index]);
+            }
+            else
+            {
+                selected.add(times[index], values[index]);
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,58 @@
+package com.inbest.backend.model.position;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Latest snapshot of an open position. The table is maintained by a trigger on {@code positionmetrics},
+ * so the application only reads it; positions are changed by writing {@link PortfolioStockMetric} snapshots.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Table(name = "currentpositions")
+@IdClass(CurrentPositionId.class)
+public class CurrentPosition {
+
+    @Id
+    @Column(name = "portfolio_id")
+    private Integer portfolioId;
+
+    @Id
+    @Column(name = "stock_id")
+    private Integer stockId;
+
+    @Column(name = "date", nullable = false)
+    private LocalDateTime date;
+
+    @Column(name = "quantity", nullable = false)
+    private Double quantity;
+
+    @Column(name = "average_cost", nullable = false, precision = 10, scale = 2)
+    private BigDecimal averageCost;
+
+    @Column(name = "current_value", nullable = false, precision = 15, scale = 2)
+    private BigDecimal currentValue;
+
+    @Column(name = "total_return", precision = 10, scale = 4)
+    private BigDecimal totalReturn;
+
+    @Column(name = "position_weight", precision = 10, scale = 4)
+    private BigDecimal positionWeight;
+
+    @Column(name = "last_transaction_type")
+    private String lastTransactionType;
+
+    @Column(name = "last_transaction_date")
+    private LocalDateTime lastTransactionDate;
+
+    @Column(name = "last_updated", insertable = false, updatable = false)
+    private LocalDateTime lastUpdated;
+}
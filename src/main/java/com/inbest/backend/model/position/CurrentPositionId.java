@@ -0,0 +1,13 @@
+package com.inbest.backend.model.position;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrentPositionId implements Serializable {
+    private Integer portfolioId;
+    private Integer stockId;
+}
@@ -0,0 +1,27 @@
+package com.inbest.backend.model.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestionRunResponse
+{
+    private int tickerCount;
+    private int successCount;
+    private int failureCount;
+    private long elapsedMillis;
+    private double tickersPerSecond;
+    private double p50LatencyMillis;
+    private double p95LatencyMillis;
+    private double maxLatencyMillis;
+
+    @JsonIgnore
+    private List<Map<String, Object>> results;
+}
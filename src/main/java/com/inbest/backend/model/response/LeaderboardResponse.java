@@ -0,0 +1,19 @@
+package com.inbest.backend.model.response;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class LeaderboardResponse extends GenericResponse
+{
+    private final long version;
+    private final LocalDateTime generatedAt;
+
+    public LeaderboardResponse(String status, String message, Object data, long version, LocalDateTime generatedAt)
+    {
+        super(status, message, data);
+        this.version = version;
+        this.generatedAt = generatedAt;
+    }
+}
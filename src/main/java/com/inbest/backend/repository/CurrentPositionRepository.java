@@ -0,0 +1,59 @@
+package com.inbest.backend.repository;
+
+import com.inbest.backend.model.position.CurrentPosition;
+import com.inbest.backend.model.position.CurrentPositionId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface CurrentPositionRepository extends JpaRepository<CurrentPosition, CurrentPositionId>
+{
+    Optional<CurrentPosition> findByPortfolioIdAndStockId(Integer portfolioId, Integer stockId);
+
+    @Query(value = "SELECT cp.stock_id, " +
+            "s.ticker_symbol AS symbol, " +
+            "s.stock_name AS name, " +
+            "cp.quantity AS shares, " +
+            "cp.position_weight AS allocation, " +
+            "cp.average_cost AS averagePrice, " +
+            "cp.current_value AS currentPrice, " +
+            "cp.total_return AS return " +
+            "FROM currentpositions cp " +
+            "JOIN stock s ON cp.stock_id = s.stock_id " +
+            "WHERE cp.portfolio_id = :portfolioId " +
+            "ORDER BY cp.date DESC", nativeQuery = true)
+    List<Map<String, Object>> findMetricsByPortfolioId(@Param("portfolioId") int portfolioId);
+
+    @Query(value = "SELECT cp.stock_id, " +
+            "s.ticker_symbol AS symbol, " +
+            "s.stock_name AS name, " +
+            "cp.quantity AS shares, " +
+            "cp.position_weight AS allocation, " +
+            "cp.average_cost AS averagePrice, " +
+            "cp.current_value AS currentPrice, " +
+            "cp.total_return AS return " +
+            "FROM currentpositions cp " +
+            "JOIN stock s ON cp.stock_id = s.stock_id " +
+            "JOIN portfolio p ON cp.portfolio_id = p.portfolio_id " +
+            "WHERE p.portfolio_id = :portfolioId " +
+            "AND p.visibility = 'public' " +
+            "ORDER BY cp.date DESC", nativeQuery = true)
+    List<Map<String, Object>> findMetricsByPortfolioIdIfPublic(@Param("portfolioId") int portfolioId);
+
+    // Every open position: portfolio_id, stock_id, ticker_symbol, stock_name, quantity, average_cost
+    @Query(value = "SELECT cp.portfolio_id, cp.stock_id, s.ticker_symbol, s.stock_name, cp.quantity, cp.average_cost " +
+            "FROM currentpositions cp " +
+            "JOIN stock s ON s.stock_id = cp.stock_id", nativeQuery = true)
+    List<Object[]> findHoldings();
+
+    // Open positions of one portfolio, in the same shape as findHoldings
+    @Query(value = "SELECT cp.portfolio_id, cp.stock_id, s.ticker_symbol, s.stock_name, cp.quantity, cp.average_cost " +
+            "FROM currentpositions cp " +
+            "JOIN stock s ON s.stock_id = cp.stock_id " +
+            "WHERE cp.portfolio_id = :portfolioId", nativeQuery = true)
+    List<Object[]> findHoldingsByPortfolioId(@Param("portfolioId") int portfolioId);
+}
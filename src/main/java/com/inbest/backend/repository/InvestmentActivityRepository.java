@@ -26,4 +26,9 @@ public interface InvestmentActivityRepository extends JpaRepository<InvestmentAc
     Optional<LocalDateTime> findLatestOpenDateByPortfolioIdAndStockId(
             @Param("portfolioId") Long portfolioId,
             @Param("stockId") Long stockId);
+
+    @Query("SELECT ia.stock.stockId, MAX(ia.date) FROM InvestmentActivity ia " +
+            "WHERE ia.portfolio.portfolioId = :portfolioId AND ia.actionType = 'OPEN' " +
+            "GROUP BY ia.stock.stockId")
+    List<Object[]> findLatestOpenDatesByPortfolioId(@Param("portfolioId") Integer portfolioId);
 } 
\ No newline at end of file
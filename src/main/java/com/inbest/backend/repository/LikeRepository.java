@@ -8,7 +8,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface LikeRepository extends JpaRepository<Like, Integer> {
@@ -19,4 +21,7 @@ public interface LikeRepository extends JpaRepository<Like, Integer> {
     long countByPostId(@Param("postId") Long postId);
 
     boolean existsByUserIdAndPostId(int id, Long postId);
+
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    Set<Long> findLikedPostIds(@Param("userId") Integer userId, @Param("postIds") Collection<Long> postIds);
 }
\ No newline at end of file
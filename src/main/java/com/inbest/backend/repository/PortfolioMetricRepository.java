@@ -30,80 +30,35 @@ public interface PortfolioMetricRepository extends JpaRepository<PortfolioMetric
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * Latest metrics of every public portfolio that holds at least one stock, joined with the portfolio,
+     * its owner's follower count and its holding count.
+     *
+     * @return rows of portfolio_id, hourly_return, daily_return, monthly_return, total_return, beta,
+     * sharpe_ratio, volatility, risk_score, risk_category, portfolio_name, visibility, username, name,
+     * surname, image_url, follower_count, holding_count
+     */
     @Query(value = """
-    SELECT pm.* FROM (
-        SELECT DISTINCT ON (pm.portfolio_id) pm.* 
-        FROM portfoliometrics pm 
-        JOIN portfolio p ON pm.portfolio_id = p.portfolio_id
-        WHERE p.visibility = 'public'
-        AND p.portfolio_id IN (
-            SELECT ps.portfolio_id 
-            FROM portfoliostock ps 
-            GROUP BY ps.portfolio_id 
-            HAVING COUNT(DISTINCT ps.stock_id) > 0
-        )
-        ORDER BY pm.portfolio_id, pm.last_updated_date DESC
-    ) pm 
-    ORDER BY pm.total_return DESC 
-    LIMIT 10;
-    """, nativeQuery = true)
-    List<PortfolioMetric> findTop10ByTotalReturnForPublic();
-
-    @Query(value = """
-    SELECT pm.* FROM (
-        SELECT DISTINCT ON (pm.portfolio_id) pm.* 
-        FROM portfoliometrics pm 
-        JOIN portfolio p ON pm.portfolio_id = p.portfolio_id
-        WHERE p.visibility = 'public'
-        AND p.portfolio_id IN (
-            SELECT ps.portfolio_id 
-            FROM portfoliostock ps 
-            GROUP BY ps.portfolio_id 
-            HAVING COUNT(DISTINCT ps.stock_id) > 0
-        )
-        ORDER BY pm.portfolio_id, pm.last_updated_date DESC
-    ) pm 
-    ORDER BY pm.daily_return DESC 
-    LIMIT 10;
-    """, nativeQuery = true)
-    List<PortfolioMetric> findTop10ByDailyReturnForPublic();
-
-    @Query(value = """
-    SELECT pm.* FROM (
-        SELECT DISTINCT ON (pm.portfolio_id) pm.* 
-        FROM portfoliometrics pm 
-        JOIN portfolio p ON pm.portfolio_id = p.portfolio_id
-        WHERE p.visibility = 'public'
-        AND p.portfolio_id IN (
-            SELECT ps.portfolio_id 
-            FROM portfoliostock ps 
-            GROUP BY ps.portfolio_id 
-            HAVING COUNT(DISTINCT ps.stock_id) > 0
-        )
-        ORDER BY pm.portfolio_id, pm.last_updated_date DESC
-    ) pm 
-    ORDER BY pm.monthly_return DESC 
-    LIMIT 10;
-    """, nativeQuery = true)
-    List<PortfolioMetric> findTop10ByMonthlyReturnForPublic();
-
-    @Query(value = """
-    SELECT pm.* FROM (
-        SELECT DISTINCT ON (pm.portfolio_id) pm.* 
-        FROM portfoliometrics pm 
+    SELECT m.portfolio_id, m.hourly_return, m.daily_return, m.monthly_return, m.total_return,
+           m.beta, m.sharpe_ratio, m.volatility, m.risk_score, m.risk_category,
+           p.portfolio_name, p.visibility, u.username, u.name, u.surname, u.image_url,
+           (SELECT COUNT(*) FROM follows f WHERE f.following_id = u.id) AS follower_count,
+           h.holding_count
+    FROM (
+        SELECT DISTINCT ON (pm.portfolio_id) pm.*
+        FROM portfoliometrics pm
         JOIN portfolio p ON pm.portfolio_id = p.portfolio_id
         WHERE p.visibility = 'public'
-        AND p.portfolio_id IN (
-            SELECT ps.portfolio_id 
-            FROM portfoliostock ps 
-            GROUP BY ps.portfolio_id 
-            HAVING COUNT(DISTINCT ps.stock_id) > 0
-        )
         ORDER BY pm.portfolio_id, pm.last_updated_date DESC
-    ) pm 
-    ORDER BY pm.hourly_return DESC 
-    LIMIT 10;
+    ) m
+    JOIN portfolio p ON p.portfolio_id = m.portfolio_id
+    JOIN users u ON u.id = p.user_id
+    JOIN (
+        SELECT ps.portfolio_id, COUNT(DISTINCT ps.stock_id) AS holding_count
+        FROM portfoliostock ps
+        GROUP BY ps.portfolio_id
+    ) h ON h.portfolio_id = m.portfolio_id
     """, nativeQuery = true)
-    List<PortfolioMetric> findTop10ByHourlyReturnForPublic();
+    List<Object[]> findPublicLeaderboardRows();
 
 }
@@ -8,7 +8,6 @@ import org.springframework.data.repository.query.Param;
 
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 
@@ -22,21 +21,11 @@ public interface PortfolioRepository extends JpaRepository<Portfolio, Long>
     List<Portfolio> findByUserAndVisibility(@Param("user") User user, @Param("visibility") String visibility);
 
     @Query(value = """
-            SELECT *
-            FROM (
-                SELECT
-                    p.portfolio_id,
-                    RANK() OVER (ORDER BY pm.total_return DESC)::integer AS portfolio_rank,
-                    COUNT(*) OVER ()::integer AS total_portfolios
-                FROM portfolio p
-                JOIN (
-                    SELECT DISTINCT ON (portfolio_id) *
-                    FROM portfoliometrics
-                    WHERE total_return IS NOT NULL
-                    ORDER BY portfolio_id, last_updated_date DESC
-                ) pm ON p.portfolio_id = pm.portfolio_id
-            ) ranked
-            WHERE portfolio_id = :portfolioId
+            SELECT DISTINCT ON (pm.portfolio_id) pm.portfolio_id, pm.total_return
+            FROM portfoliometrics pm
+            JOIN portfolio p ON p.portfolio_id = pm.portfolio_id
+            WHERE pm.total_return IS NOT NULL
+            ORDER BY pm.portfolio_id, pm.last_updated_date DESC
             """, nativeQuery = true)
-    Map<String, Object> findPortfolioRankAndTotal(@Param("portfolioId") int portfolioId);
+    List<Object[]> findLatestTotalReturns();
 }
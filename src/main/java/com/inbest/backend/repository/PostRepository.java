@@ -2,6 +2,8 @@ package com.inbest.backend.repository;
 
 import com.inbest.backend.model.Post;
 import com.inbest.backend.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,24 +14,32 @@ import java.util.List;
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long>
 {
+    @EntityGraph(attributePaths = {"user", "investmentActivity", "investmentActivity.stock"})
     List<Post> findByUser(User user);
 
     @Query("""
                  SELECT p FROM Post p
-                 WHERE p.investmentActivity.portfolio.visibility = 'public'
-                 ORDER BY p.trendScore DESC
+                 JOIN FETCH p.user
+                 JOIN FETCH p.investmentActivity ia
+                 JOIN FETCH ia.stock
+                 WHERE ia.portfolio.visibility = 'public'
+                 ORDER BY p.trendScore DESC, p.id DESC
             """)
-    List<Post> findAllPublicOrderByScoreDesc();
-
+    List<Post> findPublicTrending(Pageable pageable);
 
     @Query("""
-    SELECT p FROM Post p
-    WHERE p.user IN :users
-      AND p.investmentActivity.portfolio.visibility = 'public'
-    ORDER BY p.createdAt DESC
-    """)
-    List<Post> findPublicPostsByUsersOrderByCreatedAtDesc(@Param("users") List<User> users);
+                 SELECT p FROM Post p
+                 JOIN FETCH p.user
+                 JOIN FETCH p.investmentActivity ia
+                 JOIN FETCH ia.stock
+                 WHERE ia.portfolio.visibility = 'public'
+                   AND (p.trendScore < :trendScore OR (p.trendScore = :trendScore AND p.id < :id))
+                 ORDER BY p.trendScore DESC, p.id DESC
+            """)
+    List<Post> findPublicTrendingAfter(@Param("trendScore") double trendScore, @Param("id") Long id, Pageable pageable);
+
 
+    @EntityGraph(attributePaths = {"user", "investmentActivity", "investmentActivity.stock"})
     List<Post> findByUserOrderByCreatedAtDesc(User user);
 
     @Query("""
@@ -44,14 +54,20 @@ public interface PostRepository extends JpaRepository<Post, Long>
     List<Post> findPostsByPortfolioId(@Param("portfolioId") Long portfolioId);
     @Query("""
     SELECT p FROM Post p
-    WHERE p.investmentActivity.portfolio.visibility = 'public'
+    JOIN FETCH p.user
+    JOIN FETCH p.investmentActivity ia
+    JOIN FETCH ia.stock
+    WHERE ia.portfolio.visibility = 'public'
     ORDER BY p.createdAt DESC
     """)
     List<Post> findAllPublicPosts();
     @Query("""
     SELECT p FROM Post p
-    WHERE p.investmentActivity.portfolio.visibility = 'public'
-      AND p.user.username = :username
+    JOIN FETCH p.user u
+    JOIN FETCH p.investmentActivity ia
+    JOIN FETCH ia.stock
+    WHERE ia.portfolio.visibility = 'public'
+      AND u.username = :username
     ORDER BY p.createdAt DESC
     """)
     List<Post> findAllPublicPostsByUsername(@Param("username") String username);
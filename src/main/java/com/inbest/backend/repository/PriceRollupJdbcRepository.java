@@ -0,0 +1,123 @@
+package com.inbest.backend.repository;
+
+import com.inbest.backend.dto.StockQuoteDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain JDBC maintenance of the OHLC rollups of {@code stockprice}. Ingested ticks are merged into the
+ * hourly, daily and monthly buckets in the ingesting transaction; existing history is rebuilt slice by
+ * slice from the raw rows.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PriceRollupJdbcRepository
+{
+    /**
+     * Rollup tables and the {@code date_trunc} unit that defines their buckets.
+     */
+    public enum Rollup
+    {
+        HOURLY("stockprice_hourly", "hour"),
+        DAILY("stockprice_daily", "day"),
+        MONTHLY("stockprice_monthly", "month");
+
+        private final String upsertTick;
+        private final String rebuildSlice;
+
+        Rollup(String table, String unit)
+        {
+            // A tick only moves open/close if it is earlier/later than the ones that set them
+            this.upsertTick =
+                    "INSERT INTO " + table + " AS r " +
+                    "(ticker_symbol, bucket, open, high, low, close, open_time, close_time, sample_count) " +
+                    "VALUES (?, date_trunc('" + unit + "', ?::timestamp), ?, ?, ?, ?, ?, ?, 1) " +
+                    "ON CONFLICT (ticker_symbol, bucket) DO UPDATE SET " +
+                    "open = CASE WHEN EXCLUDED.open_time < r.open_time THEN EXCLUDED.open ELSE r.open END, " +
+                    "open_time = LEAST(r.open_time, EXCLUDED.open_time), " +
+                    "high = GREATEST(r.high, EXCLUDED.high), " +
+                    "low = LEAST(r.low, EXCLUDED.low), " +
+                    "close = CASE WHEN EXCLUDED.close_time > r.close_time THEN EXCLUDED.close ELSE r.close END, " +
+                    "close_time = GREATEST(r.close_time, EXCLUDED.close_time), " +
+                    "sample_count = r.sample_count + 1";
+
+            this.rebuildSlice =
+                    "INSERT INTO " + table + " " +
+                    "(ticker_symbol, bucket, open, high, low, close, open_time, close_time, sample_count) " +
+                    "SELECT ticker_symbol, date_trunc('" + unit + "', date), " +
+                    "(array_agg(price ORDER BY date))[1], MAX(price), MIN(price), " +
+                    "(array_agg(price ORDER BY date DESC))[1], MIN(date), MAX(date), COUNT(*) " +
+                    "FROM stockprice WHERE date >= ? AND date < ? " +
+                    "GROUP BY ticker_symbol, date_trunc('" + unit + "', date) " +
+                    "ON CONFLICT (ticker_symbol, bucket) DO UPDATE SET " +
+                    "open = EXCLUDED.open, high = EXCLUDED.high, low = EXCLUDED.low, close = EXCLUDED.close, " +
+                    "open_time = EXCLUDED.open_time, close_time = EXCLUDED.close_time, " +
+                    "sample_count = EXCLUDED.sample_count";
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Merges newly stored ticks into every rollup. Must only be given ticks that were actually inserted,
+     * otherwise they are counted twice.
+     */
+    @Transactional
+    public void applyTicks(List<StockQuoteDTO> ticks)
+    {
+        if (ticks.isEmpty())
+        {
+            return;
+        }
+        for (Rollup rollup : Rollup.values())
+        {
+            jdbcTemplate.batchUpdate(rollup.upsertTick, ticks, ticks.size(), (ps, tick) -> {
+                Timestamp date = Timestamp.valueOf(tick.getDate());
+                ps.setString(1, tick.getTickerSymbol());
+                ps.setTimestamp(2, date);
+                ps.setDouble(3, tick.getPrice());
+                ps.setDouble(4, tick.getPrice());
+                ps.setDouble(5, tick.getPrice());
+                ps.setDouble(6, tick.getPrice());
+                ps.setTimestamp(7, date);
+                ps.setTimestamp(8, date);
+            });
+        }
+    }
+
+    /**
+     * Recomputes every bucket of every rollup from the raw ticks in [from, to). The bounds must be
+     * aligned to months so no bucket is cut in two.
+     *
+     * @return number of monthly buckets written
+     */
+    @Transactional
+    public int rebuild(LocalDateTime from, LocalDateTime to)
+    {
+        int written = 0;
+        for (Rollup rollup : Rollup.values())
+        {
+            written = jdbcTemplate.update(rollup.rebuildSlice, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        }
+        return written;
+    }
+
+    public Optional<LocalDateTime> findOldestTickDate()
+    {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(date) FROM stockprice", Timestamp.class);
+        return Optional.ofNullable(oldest).map(Timestamp::toLocalDateTime);
+    }
+
+    public Optional<LocalDateTime> findOldestMonthlyBucket()
+    {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(bucket) FROM stockprice_monthly", Timestamp.class);
+        return Optional.ofNullable(oldest).map(Timestamp::toLocalDateTime);
+    }
+}
@@ -0,0 +1,128 @@
+package com.inbest.backend.repository;
+
+import com.inbest.backend.model.PortfolioMetricsWeightedReturnView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Plain JDBC maintenance and reads of the return read models: tables holding a snapshot of a pipeline-owned
+ * view. A refresh is a single statement that evaluates the view once, upserts the rows that changed and
+ * deletes the ones that disappeared, so readers never see a partially refreshed snapshot.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReadModelJdbcRepository
+{
+    /**
+     * Source views and the snapshot tables they are copied into.
+     */
+    public enum ReadModel
+    {
+        WEIGHTED_RETURNS("portfoliometricweightedreturnview", "portfolioweightedreturn_snapshot", REFRESH_WEIGHTED_RETURNS),
+        NORMALIZED_RETURNS("portfolioreturnnormalized", "portfolioreturnnormalized_snapshot", REFRESH_NORMALIZED_RETURNS);
+
+        private final String view;
+        private final String snapshot;
+        private final String refresh;
+
+        ReadModel(String view, String snapshot, String refresh)
+        {
+            this.view = view;
+            this.snapshot = snapshot;
+            this.refresh = refresh;
+        }
+
+        public String getView()
+        {
+            return view;
+        }
+
+        public String getSnapshot()
+        {
+            return snapshot;
+        }
+    }
+
+    // DISTINCT ON guards the upserts against duplicate keys in the views; unchanged rows are not rewritten
+    private static final String REFRESH_WEIGHTED_RETURNS =
+            "WITH source AS MATERIALIZED (" +
+            "SELECT DISTINCT ON (portfolio_id) portfolio_id, hourly_return, daily_return, monthly_return, ytd_return, total_return " +
+            "FROM portfoliometricweightedreturnview ORDER BY portfolio_id), " +
+            "upserted AS (" +
+            "INSERT INTO portfolioweightedreturn_snapshot AS s " +
+            "(portfolio_id, hourly_return, daily_return, monthly_return, ytd_return, total_return) " +
+            "SELECT * FROM source " +
+            "ON CONFLICT (portfolio_id) DO UPDATE SET " +
+            "hourly_return = EXCLUDED.hourly_return, daily_return = EXCLUDED.daily_return, " +
+            "monthly_return = EXCLUDED.monthly_return, ytd_return = EXCLUDED.ytd_return, total_return = EXCLUDED.total_return " +
+            "WHERE (s.hourly_return, s.daily_return, s.monthly_return, s.ytd_return, s.total_return) IS DISTINCT FROM " +
+            "(EXCLUDED.hourly_return, EXCLUDED.daily_return, EXCLUDED.monthly_return, EXCLUDED.ytd_return, EXCLUDED.total_return) " +
+            "RETURNING 1), " +
+            "deleted AS (" +
+            "DELETE FROM portfolioweightedreturn_snapshot s " +
+            "WHERE NOT EXISTS (SELECT 1 FROM source v WHERE v.portfolio_id = s.portfolio_id) RETURNING 1) " +
+            "SELECT (SELECT COUNT(*) FROM upserted) + (SELECT COUNT(*) FROM deleted)";
+
+    private static final String REFRESH_NORMALIZED_RETURNS =
+            "WITH source AS MATERIALIZED (" +
+            "SELECT DISTINCT ON (portfolio_id, date) portfolio_id, date, normalized_portfolio_return " +
+            "FROM portfolioreturnnormalized ORDER BY portfolio_id, date), " +
+            "upserted AS (" +
+            "INSERT INTO portfolioreturnnormalized_snapshot AS s (portfolio_id, date, normalized_portfolio_return) " +
+            "SELECT * FROM source " +
+            "ON CONFLICT (portfolio_id, date) DO UPDATE SET normalized_portfolio_return = EXCLUDED.normalized_portfolio_return " +
+            "WHERE s.normalized_portfolio_return IS DISTINCT FROM EXCLUDED.normalized_portfolio_return " +
+            "RETURNING 1), " +
+            "deleted AS (" +
+            "DELETE FROM portfolioreturnnormalized_snapshot s " +
+            "WHERE NOT EXISTS (SELECT 1 FROM source v WHERE v.portfolio_id = s.portfolio_id AND v.date = s.date) RETURNING 1) " +
+            "SELECT (SELECT COUNT(*) FROM upserted) + (SELECT COUNT(*) FROM deleted)";
+
+    private static final String VIEW_EXISTS = "SELECT to_regclass(?) IS NOT NULL";
+
+    private static final String WEIGHTED_RETURNS =
+            "SELECT portfolio_id, hourly_return, daily_return, monthly_return, ytd_return, total_return " +
+            "FROM portfoliometricweightedreturnview WHERE portfolio_id = ?";
+
+    private static final String WEIGHTED_RETURNS_SNAPSHOT =
+            "SELECT portfolio_id, hourly_return, daily_return, monthly_return, ytd_return, total_return " +
+            "FROM portfolioweightedreturn_snapshot WHERE portfolio_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public boolean viewExists(ReadModel model)
+    {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(VIEW_EXISTS, Boolean.class, model.view));
+    }
+
+    /**
+     * Brings the snapshot in line with its view.
+     *
+     * @return number of rows inserted, changed or deleted
+     */
+    public long refresh(ReadModel model)
+    {
+        Long changed = jdbcTemplate.queryForObject(model.refresh, Long.class);
+        return changed != null ? changed : 0;
+    }
+
+    /**
+     * Weighted returns of the portfolio, read from the snapshot or, when it cannot be trusted, from the view.
+     */
+    public Optional<PortfolioMetricsWeightedReturnView> findWeightedReturns(int portfolioId, boolean fromSnapshot)
+    {
+        return jdbcTemplate.query(fromSnapshot ? WEIGHTED_RETURNS_SNAPSHOT : WEIGHTED_RETURNS,
+                (rs, rowNum) -> PortfolioMetricsWeightedReturnView.builder()
+                        .portfolioId(rs.getInt("portfolio_id"))
+                        .hourlyReturn(rs.getBigDecimal("hourly_return"))
+                        .dailyReturn(rs.getBigDecimal("daily_return"))
+                        .monthlyReturn(rs.getBigDecimal("monthly_return"))
+                        .ytdReturn(rs.getBigDecimal("ytd_return"))
+                        .totalReturn(rs.getBigDecimal("total_return"))
+                        .build(),
+                portfolioId).stream().findFirst();
+    }
+}
@@ -0,0 +1,103 @@
+package com.inbest.backend.repository;
+
+import com.inbest.backend.dto.StockQuoteDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain JDBC writes for market data. Ingestion produces one quote per ticker, so both tables are
+ * written with a single batch each instead of one JPA update per symbol, and the new ticks are
+ * merged into the price rollups in the same transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockPriceJdbcRepository
+{
+    // updated_at carries the quote time, so a restarted price cache knows how old the price is
+    private static final String UPDATE_CURRENT_PRICE =
+            "UPDATE stock SET current_price = ?, updated_at = ? WHERE ticker_symbol = ?";
+
+    // Existing snapshots written by other jobs are left untouched
+    private static final String INSERT_STOCK_PRICE =
+            "INSERT INTO stockprice (ticker_symbol, date, price) VALUES (?, ?, ?) " +
+            "ON CONFLICT (ticker_symbol, date) DO NOTHING";
+
+    // Whole monthly chunks older than the cutoff; returns one row per dropped chunk
+    private static final String DROP_RAW_CHUNKS =
+            "SELECT drop_chunks('stockprice', older_than => ?::timestamp)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PriceRollupJdbcRepository priceRollupJdbcRepository;
+
+    /**
+     * Writes the latest quotes to {@code stock.current_price}, {@code stockprice} and the rollups in one transaction.
+     *
+     * @param quotes quotes to persist
+     * @return per-quote flag telling whether a matching stock row was updated
+     */
+    @Transactional
+    public boolean[] saveLatestPrices(List<StockQuoteDTO> quotes)
+    {
+        boolean[] updated = new boolean[quotes.size()];
+        if (quotes.isEmpty())
+        {
+            return updated;
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_CURRENT_PRICE, quotes, quotes.size(), (ps, quote) -> {
+            ps.setDouble(1, quote.getPrice());
+            ps.setTimestamp(2, Timestamp.valueOf(quote.getDate()));
+            ps.setString(3, quote.getTickerSymbol());
+        });
+
+        int[][] inserts = jdbcTemplate.batchUpdate(INSERT_STOCK_PRICE, quotes, quotes.size(), (ps, quote) -> {
+            ps.setString(1, quote.getTickerSymbol());
+            ps.setTimestamp(2, Timestamp.valueOf(quote.getDate()));
+            ps.setDouble(3, quote.getPrice());
+        });
+
+        int index = 0;
+        for (int[] batch : counts)
+        {
+            for (int count : batch)
+            {
+                updated[index++] = count > 0 || count == Statement.SUCCESS_NO_INFO;
+            }
+        }
+
+        // Only ticks that were new go into the rollups, so re-ingesting a snapshot never counts it twice
+        List<StockQuoteDTO> inserted = new ArrayList<>(quotes.size());
+        index = 0;
+        for (int[] batch : inserts)
+        {
+            for (int count : batch)
+            {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO)
+                {
+                    inserted.add(quotes.get(index));
+                }
+                index++;
+            }
+        }
+        priceRollupJdbcRepository.applyTicks(inserted);
+        return updated;
+    }
+
+    /**
+     * Drops the raw tick chunks that lie entirely before the cutoff. Their history survives in the rollups.
+     *
+     * @return number of chunks dropped
+     */
+    public int dropRawPricesBefore(LocalDateTime cutoff)
+    {
+        return jdbcTemplate.queryForList(DROP_RAW_CHUNKS, String.class, Timestamp.valueOf(cutoff)).size();
+    }
+}
@@ -16,28 +16,19 @@ import org.springframework.data.domain.Pageable;
 @Repository
 public interface StockPriceRepository extends JpaRepository<StockPrice, Long> {
 
+    // Served from the daily OHLC rollup: one row per day instead of every tick
     @Query(value = """
-            WITH daily_prices AS (
-                SELECT 
-                    date_trunc('day', date) as day,
-                    ticker_symbol,
-                    FIRST_VALUE(price) OVER (PARTITION BY date_trunc('day', date), ticker_symbol ORDER BY date) as first_price,
-                    LAST_VALUE(price) OVER (PARTITION BY date_trunc('day', date), ticker_symbol ORDER BY date
-                        ROWS BETWEEN UNBOUNDED PRECEDING AND UNBOUNDED FOLLOWING) as last_price
-                FROM stockprice
-                WHERE ticker_symbol = :ticker
-                AND date BETWEEN :startDate AND :endDate
-            )
-            SELECT 
-                day::timestamp as date,
-                CASE 
-                    WHEN first_price IS NOT NULL AND first_price != 0 
-                    THEN ((last_price - first_price) / first_price) * 100
-                    ELSE NULL 
-                END as daily_return
-            FROM daily_prices
-            GROUP BY day, ticker_symbol, first_price, last_price
-            ORDER BY day
+            SELECT
+                bucket AS date,
+                CASE
+                    WHEN open != 0
+                    THEN ((close - open) / open) * 100
+                    ELSE NULL
+                END AS daily_return
+            FROM stockprice_daily
+            WHERE ticker_symbol = :ticker
+            AND bucket BETWEEN date_trunc('day', CAST(:startDate AS timestamp)) AND :endDate
+            ORDER BY bucket
             """, nativeQuery = true)
     List<Map<String, Object>> findDailyReturnsByTickerAndDateRange(
             @Param("ticker") String ticker,
@@ -72,28 +63,46 @@ public interface StockPriceRepository extends JpaRepository<StockPrice, Long> {
 
     StockPrice findTopByTickerSymbolAndDateBeforeOrderByDateDesc(String tickerSymbol, LocalDateTime date);
 
+    /**
+     * Prices in [startDate, endDate) plus the last price before startDate, oldest first, as (date, price) rows.
+     * Enough to resolve the price in effect just before any instant in the range. The hourly rollup supplies
+     * the earlier price when the raw ticks before startDate have already been dropped by retention.
+     */
     @Query(value = """
-            WITH monthly_prices AS (
-                SELECT 
-                    date_trunc('month', date) as month,
-                    ticker_symbol,
-                    FIRST_VALUE(price) OVER (PARTITION BY date_trunc('month', date), ticker_symbol ORDER BY date) as first_price,
-                    LAST_VALUE(price) OVER (PARTITION BY date_trunc('month', date), ticker_symbol ORDER BY date
-                        ROWS BETWEEN UNBOUNDED PRECEDING AND UNBOUNDED FOLLOWING) as last_price
-                FROM stockprice
-                WHERE ticker_symbol = :ticker
-                AND date BETWEEN :startDate AND :endDate
-            )
-            SELECT 
-                month::timestamp as date,
-                CASE 
-                    WHEN first_price IS NOT NULL AND first_price != 0 
-                    THEN ((last_price - first_price) / first_price) * 100
-                    ELSE NULL 
-                END as monthly_return
-            FROM monthly_prices
-            GROUP BY month, ticker_symbol, first_price, last_price
-            ORDER BY month
+            SELECT date, price FROM (
+                (SELECT date, price FROM stockprice
+                 WHERE ticker_symbol = :ticker AND date < :startDate
+                 ORDER BY date DESC
+                 LIMIT 1)
+                UNION ALL
+                (SELECT close_time AS date, close AS price FROM stockprice_hourly
+                 WHERE ticker_symbol = :ticker AND close_time < :startDate
+                 ORDER BY bucket DESC
+                 LIMIT 1)
+                UNION ALL
+                (SELECT date, price FROM stockprice
+                 WHERE ticker_symbol = :ticker AND date >= :startDate AND date < :endDate)
+            ) prices
+            ORDER BY date
+            """, nativeQuery = true)
+    List<Object[]> findPriceSeriesWithAnchor(
+            @Param("ticker") String ticker,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    // Served from the monthly OHLC rollup: one row per month instead of every tick
+    @Query(value = """
+            SELECT
+                bucket AS date,
+                CASE
+                    WHEN open != 0
+                    THEN ((close - open) / open) * 100
+                    ELSE NULL
+                END AS monthly_return
+            FROM stockprice_monthly
+            WHERE ticker_symbol = :ticker
+            AND bucket BETWEEN date_trunc('month', CAST(:startDate AS timestamp)) AND :endDate
+            ORDER BY bucket
             """, nativeQuery = true)
     List<Map<String, Object>> findMonthlyReturnsByTickerAndDateRange(
             @Param("ticker") String ticker,
@@ -0,0 +1,156 @@
+package com.inbest.backend.repository;
+
+import com.inbest.backend.model.TimeSeries;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Plain JDBC reads for chart series. Rows are streamed from a server-side cursor straight into primitive
+ * {@link TimeSeries} columns, so a long history is never materialised as entities or maps. The PostgreSQL
+ * driver only honours the fetch size inside a transaction, hence the read-only transactions.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TimeSeriesJdbcRepository
+{
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String PORTFOLIO_RETURNS =
+            "SELECT date, normalized_portfolio_return FROM portfolioreturnnormalized " +
+            "WHERE portfolio_id = ? ORDER BY date";
+
+    private static final String PORTFOLIO_RETURNS_SNAPSHOT =
+            "SELECT date, normalized_portfolio_return FROM portfolioreturnnormalized_snapshot " +
+            "WHERE portfolio_id = ? ORDER BY date";
+
+    private static final String PRICES =
+            "SELECT date, price FROM stockprice " +
+            "WHERE ticker_symbol = ? AND date >= ? AND date < ? ORDER BY date";
+
+    private static final String HOURLY_CLOSES =
+            "SELECT bucket, close FROM stockprice_hourly " +
+            "WHERE ticker_symbol = ? AND bucket >= ? AND bucket < ? ORDER BY bucket";
+
+    // Everything since the horizon plus each ticker's last earlier price, grouped by ticker
+    private static final String PRICE_HISTORY =
+            "SELECT ticker_symbol, date, price FROM (" +
+            "(SELECT ticker_symbol, date, price FROM stockprice WHERE date >= ?) " +
+            "UNION ALL " +
+            "(SELECT DISTINCT ON (ticker_symbol) ticker_symbol, date, price FROM stockprice " +
+            "WHERE date < ? ORDER BY ticker_symbol, date DESC)" +
+            ") history ORDER BY ticker_symbol, date";
+
+    // Last snapshot of each of the past 30 days, per held stock
+    private static final String DAILY_POSITION_RETURNS =
+            "SELECT s.ticker_symbol, pm.date, pm.total_return " +
+            "FROM positionmetrics pm " +
+            "JOIN stock s ON pm.stock_id = s.stock_id " +
+            "WHERE pm.portfolio_id = ? " +
+            "AND pm.date IN (SELECT MAX(pm2.date) " +
+            "FROM positionmetrics pm2 " +
+            "WHERE pm2.portfolio_id = pm.portfolio_id " +
+            "AND pm2.date >= CURRENT_DATE - INTERVAL '30 days' " +
+            "GROUP BY DATE(pm2.date)) " +
+            "ORDER BY pm.date ASC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Normalised return series of the portfolio, oldest first.
+     *
+     * @param fromSnapshot read the refreshed snapshot instead of evaluating the view
+     */
+    @Transactional(readOnly = true)
+    public TimeSeries findPortfolioReturns(int portfolioId, boolean fromSnapshot)
+    {
+        TimeSeries series = new TimeSeries();
+        stream(fromSnapshot ? PORTFOLIO_RETURNS_SNAPSHOT : PORTFOLIO_RETURNS, rs -> append(series, rs, 1, 2), portfolioId);
+        return series;
+    }
+
+    /**
+     * Prices of the ticker in [from, to), oldest first.
+     */
+    @Transactional(readOnly = true)
+    public TimeSeries findPrices(String tickerSymbol, LocalDateTime from, LocalDateTime to)
+    {
+        TimeSeries series = new TimeSeries();
+        stream(PRICES, rs -> append(series, rs, 1, 2), tickerSymbol, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return series;
+    }
+
+    /**
+     * Closing price of every hour of the ticker in [from, to), oldest first, read from the hourly rollup.
+     */
+    @Transactional(readOnly = true)
+    public TimeSeries findHourlyCloses(String tickerSymbol, LocalDateTime from, LocalDateTime to)
+    {
+        TimeSeries series = new TimeSeries();
+        stream(HOURLY_CLOSES, rs -> append(series, rs, 1, 2), tickerSymbol, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return series;
+    }
+
+    /**
+     * Total return of every position over the last 30 days, one series per ticker in order of first appearance.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, TimeSeries> findDailyPositionReturns(int portfolioId)
+    {
+        Map<String, TimeSeries> series = new LinkedHashMap<>();
+        stream(DAILY_POSITION_RETURNS,
+                rs -> append(series.computeIfAbsent(rs.getString(1), ticker -> new TimeSeries()), rs, 2, 3),
+                portfolioId);
+        return series;
+    }
+
+    /**
+     * Streams every price since the horizon, plus the last price before it for each ticker,
+     * ordered by ticker and date.
+     */
+    @Transactional(readOnly = true)
+    public void forEachPriceSince(LocalDateTime horizon, PriceRowHandler handler)
+    {
+        Timestamp from = Timestamp.valueOf(horizon);
+        stream(PRICE_HISTORY,
+                rs -> handler.accept(rs.getString(1), rs.getTimestamp(2).getTime(), rs.getDouble(3)),
+                from, from);
+    }
+
+    private void stream(String sql, RowCallbackHandler handler, Object... args)
+    {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            new ArgumentPreparedStatementSetter(args).setValues(statement);
+            return statement;
+        }, handler);
+    }
+
+    // Rows without a value carry nothing to draw and are skipped
+    private static void append(TimeSeries series, ResultSet rs, int dateColumn, int valueColumn) throws SQLException
+    {
+        BigDecimal value = rs.getBigDecimal(valueColumn);
+        if (value != null)
+        {
+            series.add(rs.getTimestamp(dateColumn).getTime(), value);
+        }
+    }
+
+    public interface PriceRowHandler
+    {
+        void accept(String tickerSymbol, long time, double price);
+    }
+}
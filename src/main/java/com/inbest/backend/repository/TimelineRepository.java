@@ -0,0 +1,64 @@
+package com.inbest.backend.repository;
+
+import com.inbest.backend.model.Post;
+import com.inbest.backend.model.TimelineEntry;
+import com.inbest.backend.model.TimelineEntryId;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TimelineRepository extends JpaRepository<TimelineEntry, TimelineEntryId>
+{
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO timeline (user_id, post_id, author_id, created_at)
+            SELECT f.follower_id, p.id, p.user_id, p.created_at
+            FROM posts p
+            JOIN follows f ON f.following_id = p.user_id
+            WHERE p.id = :postId
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int fanOutPost(@Param("postId") Long postId);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO timeline (user_id, post_id, author_id, created_at)
+            SELECT :followerId, p.id, p.user_id, p.created_at
+            FROM posts p
+            WHERE p.user_id = :authorId
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int backfillAuthor(@Param("followerId") Integer followerId, @Param("authorId") Integer authorId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM timeline WHERE user_id = :followerId AND author_id = :authorId", nativeQuery = true)
+    int removeAuthor(@Param("followerId") Integer followerId, @Param("authorId") Integer authorId);
+
+    @Query("""
+            SELECT p FROM TimelineEntry t
+            JOIN Post p ON p.id = t.postId
+            JOIN FETCH p.user
+            JOIN FETCH p.investmentActivity ia
+            JOIN FETCH ia.stock
+            WHERE t.userId = :userId
+              AND ia.portfolio.visibility = 'public'
+            ORDER BY t.createdAt DESC, t.postId DESC
+            """)
+    List<Post> findTimelinePosts(@Param("userId") Integer userId, Pageable pageable);
+
+    @Query("""
+            SELECT COUNT(t) FROM TimelineEntry t
+            JOIN Post p ON p.id = t.postId
+            WHERE t.userId = :userId
+              AND p.investmentActivity.portfolio.visibility = 'public'
+            """)
+    long countTimelinePosts(@Param("userId") Integer userId);
+}
@@ -18,9 +18,24 @@ public interface UserRepository extends JpaRepository<User, Long>
 
     Optional<User> findByEmail(String email);
 
-    @Query("SELECT u FROM User u WHERE LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(CONCAT(u.name, ' ', u.surname)) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<User> searchUsers(@Param("searchTerm") String searchTerm);
+    /**
+     * Substring match on username or full name, served by the trigram indexes from V4_2. Exact and prefix
+     * matches rank first, then the closest usernames. Both arguments are lower case; {@code pattern} is the term
+     * with its LIKE wildcards escaped.
+     */
+    @Query(value = """
+            SELECT u.* FROM users u
+            WHERE lower(u.username) LIKE '%' || :pattern || '%'
+               OR lower(u.name || ' ' || u.surname) LIKE '%' || :pattern || '%'
+            ORDER BY lower(u.username) = :term DESC,
+                     lower(u.username) LIKE :pattern || '%' DESC,
+                     lower(u.name || ' ' || u.surname) LIKE :pattern || '%' DESC,
+                     similarity(lower(u.username), :term) DESC,
+                     u.username
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<User> searchUsers(@Param("term") String term, @Param("pattern") String pattern,
+                           @Param("limit") int limit, @Param("offset") int offset);
 
     boolean existsByEmail(@NotBlank(message = "Email cannot be blank") @Pattern(
             regexp = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$",
@@ -0,0 +1,34 @@
+package com.inbest.backend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers updates of in-memory state until the caller's transaction commits, so a rollback never leaves
+ * the state ahead of the database. Outside a transaction the update runs immediately.
+ */
+final class AfterCommit
+{
+    private AfterCommit()
+    {
+    }
+
+    static void run(Runnable update)
+    {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    update.run();
+                }
+            });
+        }
+        else
+        {
+            update.run();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.inbest.backend.authentication.AuthenticationRequest;
 import com.inbest.backend.authentication.AuthenticationResponse;
 import com.inbest.backend.authentication.RegisterRequest;
 import com.inbest.backend.exception.UserNotFoundException;
+import com.inbest.backend.model.AuthenticatedUser;
 import com.inbest.backend.model.Role;
 import com.inbest.backend.model.TokenType;
 import com.inbest.backend.model.User;
@@ -29,6 +30,7 @@ public class AuthenticationService
     private final AuthenticationManager authenticationManager;
     private final TokenService tokenService;
     private final EmailService emailService;
+    private final UserCache userCache;
 
     public AuthenticationResponse register(RegisterRequest request)
     {
@@ -82,6 +84,7 @@ public class AuthenticationService
         user.setVerified(true);
         user.setEnabled(true);
         repository.save(user);
+        userCache.invalidate(user);
 
         tokenService.invalidateToken(token);
         return true;
@@ -106,6 +109,10 @@ public class AuthenticationService
     public int authenticate_user()
     {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal)
+        {
+            return principal.getUserId();
+        }
         String token = (String) authentication.getCredentials();
 
         return jwtService.extractUserIdFromToken(token);
@@ -114,6 +121,10 @@ public class AuthenticationService
     public String authenticateUsername()
     {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal)
+        {
+            return principal.getUsername();
+        }
         String token = (String) authentication.getCredentials();
         return jwtService.extractUsername(token);
     }
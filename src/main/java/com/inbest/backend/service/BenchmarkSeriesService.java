@@ -0,0 +1,225 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.model.TimeSeries;
+import com.inbest.backend.repository.StockPriceRepository;
+import com.inbest.backend.repository.StockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Daily returns of the benchmark indices the portfolio charts are compared against. Each ticker's returns
+ * for the longest {@link ReturnWindow} are loaded with one query and kept as a {@code double[]} indexed by
+ * day, so joining a portfolio series is one pass with a constant-time lookup per row. Series are reloaded
+ * once they are older than {@code benchmark-series.ttl-ms}, which keeps the current day's return moving.
+ * Prices come from {@link StockPriceHistoryStore} when it covers the range and from the database otherwise.
+ */
+@Service
+@Slf4j
+public class BenchmarkSeriesService
+{
+    public static final String GOLD = "GC=F";
+    public static final String SPY = "SPY";
+
+    private final StockPriceRepository stockPriceRepository;
+    private final StockRepository stockRepository;
+    private final StockPriceHistoryStore stockPriceHistoryStore;
+    private final long ttlNanos;
+    private final Map<String, DailySeries> series = new ConcurrentHashMap<>();
+
+    public BenchmarkSeriesService(StockPriceRepository stockPriceRepository,
+                                  StockRepository stockRepository,
+                                  StockPriceHistoryStore stockPriceHistoryStore,
+                                  @Value("${benchmark-series.ttl-ms:300000}") long ttlMillis)
+    {
+        this.stockPriceRepository = stockPriceRepository;
+        this.stockRepository = stockRepository;
+        this.stockPriceHistoryStore = stockPriceHistoryStore;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    /**
+     * Daily returns of the ticker, in percent, covering at least the last year.
+     *
+     * @throws IllegalStateException if the ticker is not a known stock
+     */
+    public DailySeries dailyReturns(String tickerSymbol)
+    {
+        DailySeries current = series.get(tickerSymbol);
+        if (current != null && System.nanoTime() - current.loadedAt < ttlNanos)
+        {
+            return current;
+        }
+        // Loaded outside the map so no bin lock is held across queries; concurrent misses may load twice
+        // and the newer series wins
+        DailySeries loaded = load(tickerSymbol);
+        return series.merge(tickerSymbol, loaded, (old, fresh) -> fresh.loadedAt - old.loadedAt >= 0 ? fresh : old);
+    }
+
+    /**
+     * Price in effect strictly before each of the given ascending instants, or {@code null} where there is none.
+     * Reads the whole span with one range query and resolves every instant with a single forward merge.
+     */
+    public BigDecimal[] pricesBefore(String tickerSymbol, List<LocalDateTime> dates)
+    {
+        if (dates.isEmpty())
+        {
+            return new BigDecimal[0];
+        }
+
+        if (stockPriceHistoryStore.covers(dates.get(0)))
+        {
+            BigDecimal[] prices = new BigDecimal[dates.size()];
+            for (int i = 0; i < dates.size(); i++)
+            {
+                double price = stockPriceHistoryStore.priceBefore(tickerSymbol, dates.get(i));
+                prices[i] = Double.isNaN(price) ? null : BigDecimal.valueOf(price);
+            }
+            return prices;
+        }
+
+        List<Object[]> rows = stockPriceRepository.findPriceSeriesWithAnchor(
+                tickerSymbol, dates.get(0), dates.get(dates.size() - 1));
+        long[] priceTimes = new long[rows.size()];
+        BigDecimal[] prices = new BigDecimal[rows.size()];
+        for (int i = 0; i < rows.size(); i++)
+        {
+            priceTimes[i] = ((Timestamp) rows.get(i)[0]).getTime();
+            prices[i] = (BigDecimal) rows.get(i)[1];
+        }
+
+        long[] pointTimes = new long[dates.size()];
+        for (int i = 0; i < dates.size(); i++)
+        {
+            pointTimes[i] = Timestamp.valueOf(dates.get(i)).getTime();
+        }
+        return asOf(priceTimes, prices, pointTimes);
+    }
+
+    /**
+     * As-of join of two ascending series: for every point, the last price strictly before it.
+     */
+    static BigDecimal[] asOf(long[] priceTimes, BigDecimal[] prices, long[] pointTimes)
+    {
+        BigDecimal[] joined = new BigDecimal[pointTimes.length];
+        int next = 0;
+        for (int i = 0; i < pointTimes.length; i++)
+        {
+            while (next < priceTimes.length && priceTimes[next] < pointTimes[i])
+            {
+                next++;
+            }
+            joined[i] = next > 0 ? prices[next - 1] : null;
+        }
+        return joined;
+    }
+
+    private DailySeries load(String tickerSymbol)
+    {
+        if (stockRepository.findByTickerSymbol(tickerSymbol).isEmpty())
+        {
+            throw new IllegalStateException("Required stock " + tickerSymbol + " not found");
+        }
+
+        LocalDateTime endDate = LocalDateTime.now();
+        LocalDateTime startDate = ReturnWindow.YEARLY.start(endDate);
+        long firstDay = startDate.toLocalDate().toEpochDay();
+        double[] returns = new double[(int) (endDate.toLocalDate().toEpochDay() - firstDay + 1)];
+        Arrays.fill(returns, Double.NaN);
+
+        if (stockPriceHistoryStore.covers(startDate))
+        {
+            TimeSeries daily = stockPriceHistoryStore.rollupReturns(tickerSymbol, startDate, endDate, StockPriceHistoryStore.Resolution.DAY);
+            for (int i = 0; i < daily.size(); i++)
+            {
+                setReturn(returns, firstDay, daily.dateAt(i).toLocalDate(), daily.valueAt(i));
+            }
+            return new DailySeries(firstDay, returns, System.nanoTime());
+        }
+
+        List<Map<String, Object>> rows = stockPriceRepository.findDailyReturnsByTickerAndDateRange(tickerSymbol, startDate, endDate);
+        for (Map<String, Object> row : rows)
+        {
+            Object dailyReturn = row.get("daily_return");
+            if (dailyReturn == null)
+            {
+                continue;
+            }
+            setReturn(returns, firstDay, ((Timestamp) row.get("date")).toLocalDateTime().toLocalDate(), ((Number) dailyReturn).doubleValue());
+        }
+        log.debug("Loaded {} daily returns for benchmark {}", rows.size(), tickerSymbol);
+        return new DailySeries(firstDay, returns, System.nanoTime());
+    }
+
+    // Days outside the series, e.g. a rollup bucket before the window start, are ignored
+    private static void setReturn(double[] returns, long firstDay, LocalDate day, double value)
+    {
+        long index = day.toEpochDay() - firstDay;
+        if (index >= 0 && index < returns.length)
+        {
+            returns[(int) index] = value;
+        }
+    }
+
+    /**
+     * Look-back windows served by the portfolio return charts.
+     */
+    public enum ReturnWindow
+    {
+        WEEKLY,
+        MONTHLY,
+        YEARLY;
+
+        public LocalDateTime start(LocalDateTime end)
+        {
+            switch (this)
+            {
+                case WEEKLY:
+                    return end.minusDays(7);
+                case MONTHLY:
+                    return end.minusMonths(1);
+                default:
+                    return end.minusYears(1);
+            }
+        }
+    }
+
+    /**
+     * Immutable daily return series; days without prices hold {@code NaN}.
+     */
+    public static final class DailySeries
+    {
+        private final long firstEpochDay;
+        private final double[] returns;
+        private final long loadedAt;
+
+        private DailySeries(long firstEpochDay, double[] returns, long loadedAt)
+        {
+            this.firstEpochDay = firstEpochDay;
+            this.returns = returns;
+            this.loadedAt = loadedAt;
+        }
+
+        /**
+         * Return on the given day, or {@code null} when there was no trading or the day is outside the series.
+         */
+        public BigDecimal returnOn(LocalDate day)
+        {
+            long index = day.toEpochDay() - firstEpochDay;
+            if (index < 0 || index >= returns.length || Double.isNaN(returns[(int) index]))
+            {
+                return null;
+            }
+            return BigDecimal.valueOf(returns[(int) index]);
+        }
+    }
+}
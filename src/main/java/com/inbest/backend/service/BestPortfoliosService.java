@@ -4,15 +4,12 @@ import com.inbest.backend.dto.BestPortfolioResponseDTO;
 import com.inbest.backend.dto.PortfolioDTO;
 import com.inbest.backend.model.response.BestPortfolioResponse;
 import com.inbest.backend.dto.UserDTO;
-import com.inbest.backend.model.position.PortfolioMetric;
-import com.inbest.backend.model.Portfolio;
-import com.inbest.backend.model.User;
 import com.inbest.backend.model.response.PortfolioMetricResponse;
 import com.inbest.backend.repository.PortfolioMetricRepository;
-import com.inbest.backend.repository.PortfolioStockRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,72 +19,53 @@ public class BestPortfoliosService
 {
 
     private final PortfolioMetricRepository portfolioMetricRepository;
-    private final FollowService followService;
-    private final PortfolioStockRepository portfolioStockRepository;
 
-    public List<BestPortfolioResponse> getBestPortfoliosByTotalReturn()
+    /**
+     * Latest metrics of every public portfolio that holds at least one stock, assembled into
+     * leaderboard rows. Order is unspecified; rankings are sorted by {@link LeaderboardSnapshotService}.
+     */
+    public List<BestPortfolioResponse> getPublicLeaderboardRows()
     {
-        return buildResponse(portfolioMetricRepository.findTop10ByTotalReturnForPublic());
+        return portfolioMetricRepository.findPublicLeaderboardRows().stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
     }
 
-    public List<BestPortfolioResponse> getBestPortfoliosByDailyReturn()
+    // Columns as documented on PortfolioMetricRepository.findPublicLeaderboardRows
+    private BestPortfolioResponse toResponse(Object[] row)
     {
-        return buildResponse(portfolioMetricRepository.findTop10ByDailyReturnForPublic());
+        UserDTO userDTO = UserDTO.builder()
+                .username((String) row[12])
+                .name((String) row[13])
+                .email(null)
+                .surname((String) row[14])
+                .image_url((String) row[15])
+                .followerCount(((Number) row[16]).longValue())
+                .build();
+
+        BestPortfolioResponseDTO bestPortfolioResponseDTO = BestPortfolioResponseDTO.builder()
+                .portfolioName((String) row[10])
+                .visibility((String) row[11])
+                .holdingCount(((Number) row[17]).intValue())
+                .build();
+
+        PortfolioMetricResponse metricDTO = PortfolioMetricResponse.builder()
+                .portfolioId(((Number) row[0]).intValue())
+                .hourlyReturn((BigDecimal) row[1])
+                .dailyReturn((BigDecimal) row[2])
+                .monthlyReturn((BigDecimal) row[3])
+                .totalReturn((BigDecimal) row[4])
+                .beta((BigDecimal) row[5])
+                .sharpeRatio((BigDecimal) row[6])
+                .volatility((BigDecimal) row[7])
+                .riskScore((BigDecimal) row[8])
+                .riskCategory((String) row[9])
+                .build();
+
+        return BestPortfolioResponse.builder()
+                .portfolioMetric(metricDTO)
+                .user(userDTO)
+                .bestPortfolioResponseDTO(bestPortfolioResponseDTO)
+                .build();
     }
-
-    public List<BestPortfolioResponse> getBestPortfoliosByMonthlyReturn()
-    {
-        return buildResponse(portfolioMetricRepository.findTop10ByMonthlyReturnForPublic());
-    }
-
-    public List<BestPortfolioResponse> getBestPortfoliosByHourlyReturn()
-    {
-        return buildResponse(portfolioMetricRepository.findTop10ByHourlyReturnForPublic());
-    }
-
-    private List<BestPortfolioResponse> buildResponse(List<PortfolioMetric> metricsList)
-    {
-        return metricsList.stream().map(metric -> {
-            Portfolio portfolio = metric.getPortfolio();
-            User user = portfolio.getUser();
-
-            UserDTO userDTO = UserDTO.builder()
-                    .username(user.getUsername())
-                    .name(user.getName())
-                    .email(null)
-                    .surname(user.getSurname())
-                    .image_url(user.getImageUrl())
-                    .followerCount(followService.getFollowerCount(user.getUsername()))
-                    .build();
-
-            Integer distinctStockCount = portfolioStockRepository.countDistinctStocksByPortfolio(portfolio);
-
-
-            BestPortfolioResponseDTO bestPortfolioResponseDTO = BestPortfolioResponseDTO.builder()
-                    .portfolioName(portfolio.getPortfolioName())
-                    .visibility(portfolio.getVisibility())
-                    .holdingCount(distinctStockCount)
-                    .build();
-
-            PortfolioMetricResponse metricDTO = PortfolioMetricResponse.builder()
-                    .portfolioId(metric.getPortfolioId())
-                    .hourlyReturn(metric.getHourlyReturn())
-                    .dailyReturn(metric.getDailyReturn())
-                    .monthlyReturn(metric.getMonthlyReturn())
-                    .totalReturn(metric.getTotalReturn())
-                    .beta(metric.getBeta())
-                    .sharpeRatio(metric.getSharpeRatio())
-                    .volatility(metric.getVolatility())
-                    .riskScore(metric.getRiskScore())
-                    .riskCategory(metric.getRiskCategory())
-                    .build();
-
-            return BestPortfolioResponse.builder()
-                    .portfolioMetric(metricDTO)
-                    .user(userDTO)
-                    .bestPortfolioResponseDTO(bestPortfolioResponseDTO)
-                    .build();
-
-        }).collect(Collectors.toList());
-    }
-}
\ No newline at end of file
+}
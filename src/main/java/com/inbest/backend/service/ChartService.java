@@ -1,47 +1,65 @@
 package com.inbest.backend.service;
 
+import com.inbest.backend.cache.CacheNames;
 import com.inbest.backend.dto.DonutChartDTO;
-import com.inbest.backend.model.PortfolioStockModel;
-import com.inbest.backend.model.position.PortfolioStockMetric;
-import com.inbest.backend.repository.PortfolioStockMetricRepository;
-import com.inbest.backend.repository.PortfolioStockRepository;
+import com.inbest.backend.dto.PricePointDTO;
+import com.inbest.backend.model.TimeSeries;
+import com.inbest.backend.repository.TimeSeriesJdbcRepository;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 @Service
 public class ChartService {
 
-    private final PortfolioStockRepository portfolioStockRepository;
-    private final PortfolioStockMetricRepository portfolioStockMetricRepository;
+    private static final int RAW_PRICE_HISTORY_DAYS = 7;
 
-    public ChartService(PortfolioStockRepository portfolioStockRepository, PortfolioStockMetricRepository portfolioStockMetricRepository) {
-        this.portfolioStockRepository = portfolioStockRepository;
-        this.portfolioStockMetricRepository = portfolioStockMetricRepository;
+    private final PortfolioValuationEngine portfolioValuationEngine;
+    private final TimeSeriesJdbcRepository timeSeriesJdbcRepository;
+
+    public ChartService(PortfolioValuationEngine portfolioValuationEngine, TimeSeriesJdbcRepository timeSeriesJdbcRepository) {
+        this.portfolioValuationEngine = portfolioValuationEngine;
+        this.timeSeriesJdbcRepository = timeSeriesJdbcRepository;
     }
 
+    // Allocation by current market value, served from the in-memory valuation
     public List<DonutChartDTO> createDonutChartData(Long portfolioId) {
         List<DonutChartDTO> donutChartList = new ArrayList<>();
 
-        List<PortfolioStockModel> portfolioStocks = portfolioStockRepository.findByPortfolio_PortfolioId(portfolioId);
-
-        if (portfolioStocks.isEmpty()) {
-            throw new NoSuchElementException("No stocks found for portfolio id: " + portfolioId);
-        }
-
-        for (PortfolioStockModel stock : portfolioStocks) {
-            PortfolioStockMetric metric = portfolioStockMetricRepository
-                    .findTopByPortfolioIdAndStockIdOrderByDateDesc(stock.getPortfolio().getPortfolioId(), stock.getStock().getStockId())
-                    .orElseThrow(() -> new NoSuchElementException("No metrics found for stock id: " + stock.getStock().getStockId()));
+        PortfolioValuationEngine.Valuation valuation = portfolioValuationEngine.getValuation(portfolioId.intValue())
+                .orElseThrow(() -> new NoSuchElementException("No stocks found for portfolio id: " + portfolioId));
 
+        for (PortfolioValuationEngine.PositionValuation position : valuation.getPositions()) {
             DonutChartDTO donutChartDTO = new DonutChartDTO();
-            donutChartDTO.setTickerSymbol(stock.getStock().getTickerSymbol());
-            donutChartDTO.setPosition_weight(metric.getPositionWeight());
+            donutChartDTO.setTickerSymbol(position.getTickerSymbol());
+            donutChartDTO.setPosition_weight(BigDecimal.valueOf(position.getWeight()).setScale(4, RoundingMode.HALF_UP));
 
             donutChartList.add(donutChartDTO);
         }
 
         return donutChartList;
     }
+
+    // Price history of the last given days, streamed from the database and reduced to the requested points;
+    // longer ranges read hourly closes from the rollup instead of every tick. Not tied to any portfolio,
+    // so entries only expire with the cache TTL
+    @Cacheable(cacheNames = CacheNames.PRICE_HISTORY, key = "#tickerSymbol + ':' + #days + ':' + #points")
+    public List<PricePointDTO> getPriceHistory(String tickerSymbol, int days, int points) {
+        LocalDateTime now = LocalDateTime.now();
+        TimeSeries raw = days > RAW_PRICE_HISTORY_DAYS
+                ? timeSeriesJdbcRepository.findHourlyCloses(tickerSymbol, now.minusDays(days), now)
+                : timeSeriesJdbcRepository.findPrices(tickerSymbol, now.minusDays(days), now);
+        TimeSeries series = TimeSeriesDownsampler.downsample(raw, points);
+
+        List<PricePointDTO> pricePoints = new ArrayList<>(series.size());
+        for (int i = 0; i < series.size(); i++) {
+            pricePoints.add(new PricePointDTO(series.dateAt(i), series.decimalAt(i)));
+        }
+        return pricePoints;
+    }
 }
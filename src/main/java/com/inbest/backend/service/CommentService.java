@@ -7,7 +7,6 @@ import com.inbest.backend.model.Post;
 import com.inbest.backend.model.User;
 import com.inbest.backend.repository.CommentRepository;
 import com.inbest.backend.repository.PostRepository;
-import com.inbest.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,17 +27,11 @@ public class CommentService
     private PostRepository postRepository;
 
     @Autowired
-    private UserRepository userRepository;
-
-    @Autowired
-    private AuthenticationService authenticationService;
+    private UserService userService;
 
     public Comment save(CommentDTO commentDTO)
     {
-        String username = authenticationService.authenticateUsername();
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userService.getCurrentUser();
 
         Post post = postRepository.findById(commentDTO.getPostId())
                 .orElseThrow(() -> new RuntimeException("Post not found"));
@@ -50,6 +43,7 @@ public class CommentService
         comment.setCreatedDate(LocalDateTime.now());
 
         post.setCommentCount(post.getCommentCount() + 1);
+        postRepository.save(post);
 
         return commentRepository.save(comment);
     }
@@ -4,7 +4,7 @@ import com.inbest.backend.dto.FollowDTO;
 import com.inbest.backend.model.Follow;
 import com.inbest.backend.model.User;
 import com.inbest.backend.repository.FollowRepository;
-import com.inbest.backend.repository.UserRepository;
+import com.inbest.backend.repository.TimelineRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -20,7 +20,10 @@ public class FollowService
     private FollowRepository followRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
+
+    @Autowired
+    private TimelineRepository timelineRepository;
 
     @Transactional
     public void followUser(String followerName, String followingName)
@@ -30,10 +33,10 @@ public class FollowService
             throw new RuntimeException("You cannot follow yourself");
         }
 
-        User follower = userRepository.findByUsername(followerName)
+        User follower = userCache.findByUsername(followerName)
                 .orElseThrow(() -> new RuntimeException("Follower not found"));
 
-        User following = userRepository.findByUsername(followingName)
+        User following = userCache.findByUsername(followingName)
                 .orElseThrow(() -> new RuntimeException("User to follow not found"));
 
         if (followRepository.existsByFollowerAndFollowing(follower, following))
@@ -43,23 +46,25 @@ public class FollowService
 
         Follow follow = new Follow(follower, following);
         followRepository.save(follow);
+        timelineRepository.backfillAuthor(follower.getId(), following.getId());
     }
 
     @Transactional
     public void unfollowUser(String followerName, String followingName)
     {
-        User follower = userRepository.findByUsername(followerName)
+        User follower = userCache.findByUsername(followerName)
                 .orElseThrow(() -> new RuntimeException("Follower not found"));
 
-        User following = userRepository.findByUsername(followingName)
+        User following = userCache.findByUsername(followingName)
                 .orElseThrow(() -> new RuntimeException("User to unfollow not found"));
 
         followRepository.deleteByFollowerAndFollowing(follower, following);
+        timelineRepository.removeAuthor(follower.getId(), following.getId());
     }
 
     public List<FollowDTO> getFollowing(String username)
     {
-        User user = userRepository.findByUsername(username)
+        User user = userCache.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         return followRepository.findByFollower(user)
@@ -78,7 +83,7 @@ public class FollowService
 
     public List<FollowDTO> getFollowers(String username)
     {
-        User user = userRepository.findByUsername(username)
+        User user = userCache.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         return followRepository.findByFollowing(user)
@@ -98,14 +103,14 @@ public class FollowService
 
     public Long getFollowerCount(String username)
     {
-        User user = userRepository.findByUsername(username)
+        User user = userCache.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         return followRepository.countByFollowing(user);
     }
 
     public Long getFollowingCount(String username)
     {
-        User user = userRepository.findByUsername(username)
+        User user = userCache.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         return followRepository.countByFollower(user);
     }
@@ -117,10 +122,10 @@ public class FollowService
             return false;
         }
 
-        User follower = userRepository.findByUsername(followerName)
+        User follower = userCache.findByUsername(followerName)
                 .orElseThrow(() -> new RuntimeException("Follower not found"));
 
-        User following = userRepository.findByUsername(followingName)
+        User following = userCache.findByUsername(followingName)
                 .orElseThrow(() -> new RuntimeException("User to follow not found"));
 
         return followRepository.existsByFollowerAndFollowing(follower, following);
@@ -0,0 +1,49 @@
+package com.inbest.backend.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces outgoing requests evenly per host. Each host gets its own schedule, so a slow or strict
+ * provider never throttles calls to another one.
+ */
+public class HostRateLimiter
+{
+    private final long intervalNanos;
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    public HostRateLimiter(double permitsPerSecond)
+    {
+        if (permitsPerSecond <= 0)
+        {
+            throw new IllegalArgumentException("Permits per second must be greater than zero");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    /**
+     * Blocks until the next request to the given host may be sent.
+     */
+    public void acquire(String host) throws InterruptedException
+    {
+        long waitNanos = slots.computeIfAbsent(host, h -> new Slot()).reserve(intervalNanos);
+        if (waitNanos > 0)
+        {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private static final class Slot
+    {
+        private long nextFreeNanos = System.nanoTime();
+
+        synchronized long reserve(long intervalNanos)
+        {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextFreeNanos);
+            nextFreeNanos = start + intervalNanos;
+            return start - now;
+        }
+    }
+}
@@ -1,23 +1,49 @@
 package com.inbest.backend.service;
 
+import com.inbest.backend.cache.BoundedTtlCache;
+import com.inbest.backend.model.AuthenticatedUser;
 import com.inbest.backend.model.User;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import io.jsonwebtoken.Claims;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
     private static final String SECRET_KEY = "SAMETCOKIYIYAZILIMCISAMETCOKIYIY";  // 32-char olmali
+    public static final long TOKEN_VALIDITY_MS = 1000 * 60 * 60 * 24;  // 24 hours expiration
+    // "iat" has second precision; revocation needs the exact issue time
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final Key signInKey;
+    // Entries never outlive the token validity; each one is also checked against its own expiry
+    private final BoundedTtlCache verifiedTokens;
+
+    public JwtService(TokenRevocationRegistry tokenRevocationRegistry,
+                      @Value("${jwt.claims-cache.max-size:10000}") int claimsCacheMaxSize) {
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.signInKey = getSignInKey();
+        // Bounded so a flood of distinct tokens cannot grow it
+        this.verifiedTokens = new BoundedTtlCache("verifiedTokens", Duration.ofMillis(TOKEN_VALIDITY_MS), claimsCacheMaxSize);
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -35,16 +61,83 @@ public class JwtService {
                 .orElseThrow(() -> new RuntimeException("Role not found"))
                 .getAuthority());
         claims.put("user_id", ((User) userDetails).getId());
+        claims.put("enabled", userDetails.isEnabled());
+        claims.put("verified", ((User) userDetails).isVerified());
+        long now = System.currentTimeMillis();
+        claims.put(ISSUED_AT_MILLIS_CLAIM, now);
 
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24))  // 24 hours expiration
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + TOKEN_VALIDITY_MS))
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the token and builds the principal from its claims alone. Verified tokens are cached by hash until
+     * they expire, so hot tokens skip signature checks; revocation is checked on every call.
+     * Returns empty for invalid, expired, revoked or disabled tokens and for tokens without a role.
+     */
+    public Optional<AuthenticatedUser> verify(String token) {
+        String key = hash(token);
+        VerifiedToken verified = verifiedTokens.get(key, VerifiedToken.class);
+        if (verified == null) {
+            verified = parse(token);
+            if (verified == null) {
+                return Optional.empty();
+            }
+            verifiedTokens.put(key, verified);
+        }
+
+        if (verified.expiresAtMillis <= System.currentTimeMillis()) {
+            verifiedTokens.evict(key);
+            return Optional.empty();
+        }
+        AuthenticatedUser principal = verified.principal;
+        if (!principal.isEnabled() || tokenRevocationRegistry.isRevoked(principal.getUserId(), verified.issuedAtMillis)) {
+            return Optional.empty();
+        }
+        return Optional.of(principal);
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Integer userId = claims.get("user_id", Integer.class);
+        String role = claims.get("role", String.class);
+        if (claims.getSubject() == null || userId == null || role == null || claims.getExpiration() == null) {
+            return null;
+        }
+        // Tokens issued before the flags were added carry no "enabled"/"verified" claims
+        Boolean enabled = claims.get("enabled", Boolean.class);
+        Boolean verified = claims.get("verified", Boolean.class);
+        AuthenticatedUser principal = new AuthenticatedUser(
+                userId,
+                claims.getSubject(),
+                role,
+                enabled == null || enabled,
+                verified != null && verified);
+        Number issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Number.class);
+        long issuedAt = issuedAtMillis != null ? issuedAtMillis.longValue()
+                : claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0;
+        return new VerifiedToken(principal, issuedAt, claims.getExpiration().getTime());
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
@@ -60,7 +153,7 @@ public class JwtService {
 
     private Claims extractAllClaims(String token) {
         return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
+                .setSigningKey(signInKey)
                 .build()
                 .parseClaimsJws(token)
                 .getBody();
@@ -74,12 +167,20 @@ public class JwtService {
     public int extractUserIdFromToken(String token) {
         token = token.replace("Bearer ", "");
 
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = extractAllClaims(token);
 
         return claims.get("user_id", Integer.class);
     }
+
+    private static final class VerifiedToken {
+        private final AuthenticatedUser principal;
+        private final long issuedAtMillis;
+        private final long expiresAtMillis;
+
+        private VerifiedToken(AuthenticatedUser principal, long issuedAtMillis, long expiresAtMillis) {
+            this.principal = principal;
+            this.issuedAtMillis = issuedAtMillis;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
 }
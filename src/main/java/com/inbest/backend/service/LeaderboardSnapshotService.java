@@ -0,0 +1,156 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.event.PortfolioChangedEvent;
+import com.inbest.backend.model.response.BestPortfolioResponse;
+import com.inbest.backend.model.response.PortfolioMetricResponse;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Keeps all "best portfolios" rankings in one immutable in-memory snapshot. The snapshot is rebuilt on a
+ * fixed schedule and shortly after {@link #markDirty()} is called, so requests only slice a prebuilt list.
+ */
+@Service
+@Slf4j
+public class LeaderboardSnapshotService
+{
+    private final BestPortfoliosService bestPortfoliosService;
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private volatile Snapshot snapshot;
+    private long nextVersion = 1;
+
+    public LeaderboardSnapshotService(BestPortfoliosService bestPortfoliosService)
+    {
+        this.bestPortfoliosService = bestPortfoliosService;
+    }
+
+    public enum Ranking
+    {
+        TOTAL_RETURN(PortfolioMetricResponse::getTotalReturn),
+        DAILY_RETURN(PortfolioMetricResponse::getDailyReturn),
+        MONTHLY_RETURN(PortfolioMetricResponse::getMonthlyReturn),
+        HOURLY_RETURN(PortfolioMetricResponse::getHourlyReturn);
+
+        private final Function<PortfolioMetricResponse, BigDecimal> metric;
+
+        Ranking(Function<PortfolioMetricResponse, BigDecimal> metric)
+        {
+            this.metric = metric;
+        }
+
+        // Same order as ORDER BY ... DESC in Postgres, which puts NULLs first
+        private Comparator<BestPortfolioResponse> comparator()
+        {
+            return Comparator.comparing((BestPortfolioResponse row) -> metric.apply(row.getPortfolioMetric()),
+                            Comparator.nullsFirst(Comparator.<BigDecimal>reverseOrder()))
+                    .thenComparingInt(row -> row.getPortfolioMetric().getPortfolioId());
+        }
+    }
+
+    @Getter
+    public static final class Snapshot
+    {
+        private final long version;
+        private final LocalDateTime generatedAt;
+        private final Map<Ranking, List<BestPortfolioResponse>> rankings;
+
+        private Snapshot(long version, LocalDateTime generatedAt, Map<Ranking, List<BestPortfolioResponse>> rankings)
+        {
+            this.version = version;
+            this.generatedAt = generatedAt;
+            this.rankings = rankings;
+        }
+
+        public List<BestPortfolioResponse> page(Ranking ranking, int page, int size)
+        {
+            List<BestPortfolioResponse> rows = rankings.get(ranking);
+            // Computed as a long so a page far past the end cannot overflow into a negative offset
+            int from = (int) Math.min((long) page * size, rows.size());
+            int to = Math.min(from + size, rows.size());
+            return rows.subList(from, to);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize()
+    {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.refresh-interval-ms:60000}", initialDelayString = "${leaderboard.refresh-interval-ms:60000}")
+    public void scheduledRefresh()
+    {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.dirty-check-interval-ms:5000}")
+    public void refreshIfDirty()
+    {
+        if (dirty.get())
+        {
+            refresh();
+        }
+    }
+
+    /**
+     * Signals that portfolio metrics, visibility or holdings changed. The next dirty check rebuilds the snapshot.
+     */
+    public void markDirty()
+    {
+        dirty.set(true);
+    }
+
+    // After commit, so a refresh running meanwhile cannot snapshot the old state and clear the flag
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event)
+    {
+        markDirty();
+    }
+
+    public synchronized Snapshot refresh()
+    {
+        dirty.set(false);
+        try
+        {
+            List<BestPortfolioResponse> rows = bestPortfoliosService.getPublicLeaderboardRows();
+            Map<Ranking, List<BestPortfolioResponse>> rankings = new EnumMap<>(Ranking.class);
+            for (Ranking ranking : Ranking.values())
+            {
+                List<BestPortfolioResponse> sorted = new ArrayList<>(rows);
+                sorted.sort(ranking.comparator());
+                rankings.put(ranking, Collections.unmodifiableList(sorted));
+            }
+            snapshot = new Snapshot(nextVersion++, LocalDateTime.now(ZoneId.of("UTC")), rankings);
+        }
+        catch (RuntimeException e)
+        {
+            // Keep serving the previous snapshot and retry on the next dirty check
+            dirty.set(true);
+            log.error("Leaderboard refresh failed", e);
+            if (snapshot == null)
+            {
+                throw e;
+            }
+        }
+        return snapshot;
+    }
+
+    public Snapshot getSnapshot()
+    {
+        Snapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+}
@@ -1,16 +1,12 @@
 package com.inbest.backend.service;
 
-import com.inbest.backend.exception.UserNotFoundException;
 import com.inbest.backend.model.Like;
 import com.inbest.backend.model.Post;
 import com.inbest.backend.model.User;
 import com.inbest.backend.repository.LikeRepository;
 import com.inbest.backend.repository.PostRepository;
-import com.inbest.backend.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,16 +14,12 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class LikeService {
     private final LikeRepository likeRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final PostRepository postRepository;
 
     @Transactional
     public Like likePost(Long postId) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        User user = userService.getCurrentUser();
 
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new EntityNotFoundException("Post not found"));
@@ -50,11 +42,7 @@ public class LikeService {
 
     @Transactional
     public void unlikePost(Long postId) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        User user = userService.getCurrentUser();
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new EntityNotFoundException("Post not found"));
 
@@ -75,11 +63,7 @@ public class LikeService {
     }
 
     public boolean hasUserLikedPost(Long postId) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        User user = userService.getCurrentUser();
 
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new EntityNotFoundException("Post not found"));
@@ -0,0 +1,282 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.dto.StockQuoteDTO;
+import com.inbest.backend.model.response.IngestionRunResponse;
+import com.inbest.backend.repository.StockPriceJdbcRepository;
+import com.inbest.backend.repository.StockRepository;
+import com.inbest.backend.service.YahooChartParser.ChartSeries;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Refreshes quotes for every known ticker. Symbols are fetched in parallel on a bounded pool, requests
+ * are paced per host, and all prices of a run are written with one JDBC batch at the end.
+ */
+@Service
+@Slf4j
+public class MarketDataIngestionService
+{
+    private final RestTemplate restTemplate;
+    private final StockRepository stockRepository;
+    private final StockPriceJdbcRepository stockPriceJdbcRepository;
+    private final PriceCache priceCache;
+    private final StockPriceHistoryStore stockPriceHistoryStore;
+
+    private final String baseUrl;
+    private final String host;
+    private final long runTimeoutSeconds;
+    private final HostRateLimiter rateLimiter;
+    private final YahooChartParser chartParser = new YahooChartParser();
+    private final ExecutorService executor;
+
+    private final Timer fetchTimer;
+    private final Timer runTimer;
+    private final Counter failureCounter;
+    private final AtomicLong lastThroughputBits = new AtomicLong(Double.doubleToLongBits(0));
+
+    public MarketDataIngestionService(RestTemplate restTemplate,
+                                      StockRepository stockRepository,
+                                      StockPriceJdbcRepository stockPriceJdbcRepository,
+                                      PriceCache priceCache,
+                                      StockPriceHistoryStore stockPriceHistoryStore,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${market-data.yahoo.base-url:https://query1.finance.yahoo.com}") String baseUrl,
+                                      @Value("${market-data.ingestion.concurrency:8}") int concurrency,
+                                      @Value("${market-data.ingestion.requests-per-second:10}") double requestsPerSecond,
+                                      @Value("${market-data.ingestion.run-timeout-seconds:300}") long runTimeoutSeconds)
+    {
+        this.restTemplate = restTemplate;
+        this.stockRepository = stockRepository;
+        this.stockPriceJdbcRepository = stockPriceJdbcRepository;
+        this.priceCache = priceCache;
+        this.stockPriceHistoryStore = stockPriceHistoryStore;
+        this.baseUrl = baseUrl;
+        this.host = URI.create(baseUrl).getHost();
+        this.runTimeoutSeconds = runTimeoutSeconds;
+        this.rateLimiter = new HostRateLimiter(requestsPerSecond);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "market-data-fetch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.fetchTimer = Timer.builder("market.data.fetch")
+                .description("Latency of a single ticker fetch from the quote provider")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("market.data.ingestion.run")
+                .description("Duration of a full ingestion run")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("market.data.fetch.failures")
+                .description("Tickers that could not be fetched or parsed")
+                .register(meterRegistry);
+        Gauge.builder("market.data.ingestion.throughput", lastThroughputBits, bits -> Double.longBitsToDouble(bits.get()))
+                .description("Tickers per second achieved by the last ingestion run")
+                .register(meterRegistry);
+    }
+
+    public IngestionRunResponse ingestLatestPrices()
+    {
+        List<String> tickers = new ArrayList<>(stockRepository.findAllTickerSymbols());
+        long period = LocalDate.now().minusDays(3).atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+        long runStart = System.nanoTime();
+
+        List<Future<FetchResult>> futures = new ArrayList<>(tickers.size());
+        for (String ticker : tickers)
+        {
+            futures.add(executor.submit(() -> fetch(ticker, period)));
+        }
+
+        long deadline = runStart + TimeUnit.SECONDS.toNanos(runTimeoutSeconds);
+        List<FetchResult> fetched = new ArrayList<>(tickers.size());
+        for (int i = 0; i < futures.size(); i++)
+        {
+            fetched.add(await(tickers.get(i), futures.get(i), deadline));
+        }
+
+        List<StockQuoteDTO> quotes = new ArrayList<>();
+        for (FetchResult result : fetched)
+        {
+            if (result.quote != null)
+            {
+                quotes.add(result.quote);
+            }
+        }
+        boolean[] updated = stockPriceJdbcRepository.saveLatestPrices(quotes);
+        for (int i = 0; i < quotes.size(); i++)
+        {
+            if (updated[i])
+            {
+                StockQuoteDTO quote = quotes.get(i);
+                priceCache.update(quote.getTickerSymbol(), quote.getPrice());
+                stockPriceHistoryStore.append(quote.getTickerSymbol(), quote.getDate(), quote.getPrice());
+            }
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>(fetched.size());
+        double[] latencies = new double[fetched.size()];
+        int quoteIndex = 0;
+        int failures = 0;
+        for (int i = 0; i < fetched.size(); i++)
+        {
+            FetchResult result = fetched.get(i);
+            latencies[i] = result.latencyNanos / 1_000_000.0;
+            if (result.quote != null)
+            {
+                results.add(toResultMap(result.quote, updated[quoteIndex++]));
+            }
+            else
+            {
+                failures++;
+                Map<String, Object> error = new HashMap<>();
+                error.put("symbol", result.ticker);
+                error.put("error", result.error);
+                results.add(error);
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - runStart;
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        failureCounter.increment(failures);
+
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+        double throughput = elapsedSeconds > 0 ? quotes.size() / elapsedSeconds : 0;
+        lastThroughputBits.set(Double.doubleToLongBits(throughput));
+
+        Arrays.sort(latencies);
+        return IngestionRunResponse.builder()
+                .tickerCount(tickers.size())
+                .successCount(quotes.size())
+                .failureCount(failures)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .tickersPerSecond(throughput)
+                .p50LatencyMillis(percentile(latencies, 0.5))
+                .p95LatencyMillis(percentile(latencies, 0.95))
+                .maxLatencyMillis(latencies.length == 0 ? 0 : latencies[latencies.length - 1])
+                .results(results)
+                .build();
+    }
+
+    private FetchResult fetch(String ticker, long period) throws InterruptedException
+    {
+        rateLimiter.acquire(host);
+        long start = System.nanoTime();
+        try
+        {
+            String url = baseUrl + "/v8/finance/chart/" + ticker +
+                    "?interval=1d&period1=" + period + "&period2=" + period;
+            ChartSeries series = restTemplate.execute(url, HttpMethod.GET, null,
+                    response -> chartParser.parse(response.getBody()));
+            StockQuoteDTO quote = toQuote(ticker, series);
+            if (quote == null)
+            {
+                return new FetchResult(ticker, null, "No price data returned", System.nanoTime() - start);
+            }
+            return new FetchResult(ticker, quote, null, System.nanoTime() - start);
+        }
+        catch (Exception e)
+        {
+            return new FetchResult(ticker, null, e.getMessage(), System.nanoTime() - start);
+        }
+        finally
+        {
+            fetchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private FetchResult await(String ticker, Future<FetchResult> future, long deadline)
+    {
+        try
+        {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        catch (TimeoutException e)
+        {
+            future.cancel(true);
+            return new FetchResult(ticker, null, "Timed out waiting for quote", 0);
+        }
+        catch (ExecutionException e)
+        {
+            return new FetchResult(ticker, null, e.getCause().getMessage(), 0);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return new FetchResult(ticker, null, "Interrupted", 0);
+        }
+    }
+
+    static StockQuoteDTO toQuote(String ticker, ChartSeries series)
+    {
+        int index = series == null ? -1 : series.lastCloseIndex();
+        if (index < 0)
+        {
+            return null;
+        }
+        LocalDateTime date = LocalDateTime.ofInstant(Instant.ofEpochSecond(series.timestampAt(index)), ZoneId.systemDefault());
+        return new StockQuoteDTO(ticker, date, series.closeAt(index));
+    }
+
+    private static Map<String, Object> toResultMap(StockQuoteDTO quote, boolean updated)
+    {
+        Map<String, Object> result = new HashMap<>();
+        result.put("symbol", quote.getTickerSymbol());
+        result.put("date", quote.getDate().toLocalDate().toString());
+        result.put("close", quote.getPrice());
+        result.put("status", updated ? "Updated successfully" : "Stock not found");
+        return result;
+    }
+
+    private static double percentile(double[] sorted, double percentile)
+    {
+        if (sorted.length == 0)
+        {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    @PreDestroy
+    void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    private static final class FetchResult
+    {
+        private final String ticker;
+        private final StockQuoteDTO quote;
+        private final String error;
+        private final long latencyNanos;
+
+        private FetchResult(String ticker, StockQuoteDTO quote, String error, long latencyNanos)
+        {
+            this.ticker = ticker;
+            this.quote = quote;
+            this.error = error;
+            this.latencyNanos = latencyNanos;
+        }
+    }
+}
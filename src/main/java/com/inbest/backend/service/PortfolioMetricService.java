@@ -1,19 +1,25 @@
 package com.inbest.backend.service;
 
+import com.inbest.backend.cache.CacheNames;
 import com.inbest.backend.dto.PortfolioReturnDTO;
 import com.inbest.backend.model.*;
 import com.inbest.backend.model.position.PortfolioMetric;
 import com.inbest.backend.model.response.PortfolioReturnResponse;
 import com.inbest.backend.model.response.PortfolioMetricResponse;
 import com.inbest.backend.repository.*;
+import com.inbest.backend.repository.ReadModelJdbcRepository.ReadModel;
+import com.inbest.backend.service.BenchmarkSeriesService.ReturnWindow;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -23,13 +29,15 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PortfolioMetricService {
 
+    public static final int DEFAULT_RETURN_POINTS = 14;
+
     private final PortfolioMetricRepository portfolioMetricRepository;
-    private final PortfolioMetricsWeightedReturnViewRepository portfolioMetricsWeightedReturnViewRepository;
+    private final ReadModelJdbcRepository readModelJdbcRepository;
+    private final ReadModelRefresher readModelRefresher;
     private final PortfolioRepository portfolioRepository;
     private final UserRepository userRepository;
-    private final StockRepository stockRepository;
-    private final StockPriceRepository stockPriceRepository;
-    private final PortfolioReturnsViewRepository portfolioReturnsViewRepository;
+    private final TimeSeriesJdbcRepository timeSeriesJdbcRepository;
+    private final BenchmarkSeriesService benchmarkSeriesService;
 
     /**
      * Retrieves portfolio metrics for a specific portfolio ID with visibility check.
@@ -78,7 +86,8 @@ public class PortfolioMetricService {
         // Get only the latest metric
         PortfolioMetric latestMetric = metrics.get(0);
 
-        Optional<PortfolioMetricsWeightedReturnView> weightedMetricsOptional = portfolioMetricsWeightedReturnViewRepository.findByPortfolioId(portfolioId);
+        Optional<PortfolioMetricsWeightedReturnView> weightedMetricsOptional = readModelJdbcRepository.findWeightedReturns(portfolioId,
+                readModelRefresher.isCurrent(ReadModel.WEIGHTED_RETURNS));
         PortfolioMetricResponse response = null;
         if (weightedMetricsOptional.isPresent())
         {
@@ -116,131 +125,46 @@ public class PortfolioMetricService {
     }
 
     public List<PortfolioReturnResponse> getWeeklyReturns(Integer portfolioId) throws Exception {
-        // Get portfolio by ID
-        Optional<Portfolio> portfolioOptional = portfolioRepository.findByPortfolioId(portfolioId);
-
-        if (portfolioOptional.isEmpty()) {
-            throw new Exception("Portfolio not found with ID: " + portfolioId);
-        }
-
-        Portfolio portfolio = portfolioOptional.get();
-        LocalDateTime portfolioStartDate = portfolio.getCreatedDate();
-        LocalDateTime endDate = LocalDateTime.now();
-
-        // Get portfolio metrics for the last 7 days
-        List<PortfolioMetric> portfolioMetrics = portfolioMetricRepository.findByPortfolioIdAndDateBetweenOrderByLastUpdatedDateAsc(
-                portfolioId, endDate.minusDays(7), endDate);
-        if (portfolioMetrics.isEmpty()) {
-            throw new Exception("No metrics found for portfolio with ID: " + portfolioId);
-        }
-
-        // Get GC=F and SPY stock IDs
-        Optional<Stock> goldStock = stockRepository.findByTickerSymbol("GC=F");
-        Optional<Stock> spyStock = stockRepository.findByTickerSymbol("SPY");
-
-        if (goldStock.isEmpty() || spyStock.isEmpty()) {
-            throw new Exception("Required stocks (GC=F or SPY) not found");
-        }
-
-        // Get daily returns for GC=F and SPY
-        List<Map<String, Object>> goldReturns = stockPriceRepository.findDailyReturnsByTickerAndDateRange(
-                "GC=F", endDate.minusDays(7), endDate);
-        List<Map<String, Object>> spyReturns = stockPriceRepository.findDailyReturnsByTickerAndDateRange(
-                "SPY", endDate.minusDays(7), endDate);
-
-        // Combine the data
-        List<PortfolioReturnResponse> response = new ArrayList<>();
-        for (PortfolioMetric metric : portfolioMetrics) {
-            PortfolioReturnResponse dailyReturn = new PortfolioReturnResponse();
-            dailyReturn.setDate(metric.getLastUpdatedDate());
-            dailyReturn.setPortfolioReturn(metric.getDailyReturn());
-
-            // Find matching GC=F return for the same day
-            Optional<Map<String, Object>> goldReturn = goldReturns.stream()
-                    .filter(r -> {
-                        java.sql.Timestamp timestamp = (java.sql.Timestamp) r.get("date");
-                        LocalDateTime returnDate = timestamp.toLocalDateTime();
-                        return returnDate.toLocalDate().equals(metric.getLastUpdatedDate().toLocalDate());
-                    })
-                    .findFirst();
-            goldReturn.ifPresent(r -> dailyReturn.setGoldReturn(new BigDecimal(r.get("daily_return").toString())));
-
-            // Find matching SPY return for the same day
-            Optional<Map<String, Object>> spyReturn = spyReturns.stream()
-                    .filter(r -> {
-                        java.sql.Timestamp timestamp = (java.sql.Timestamp) r.get("date");
-                        LocalDateTime returnDate = timestamp.toLocalDateTime();
-                        return returnDate.toLocalDate().equals(metric.getLastUpdatedDate().toLocalDate());
-                    })
-                    .findFirst();
-            spyReturn.ifPresent(r -> dailyReturn.setSpyReturn(new BigDecimal(r.get("daily_return").toString())));
-
-            response.add(dailyReturn);
-        }
-
-        return response;
+        return getReturns(portfolioId, ReturnWindow.WEEKLY, null);
     }
 
     public List<PortfolioReturnResponse> getMonthlyReturns(Integer portfolioId) throws Exception {
-        // Get portfolio by ID
-        Optional<Portfolio> portfolioOptional = portfolioRepository.findByPortfolioId(portfolioId);
+        return getReturns(portfolioId, ReturnWindow.MONTHLY, null);
+    }
 
-        if (portfolioOptional.isEmpty()) {
+    /**
+     * Daily portfolio returns over the window, each paired with the GC=F and SPY return of the same day.
+     *
+     * @param points number of points to downsample the series to, or {@code null} for every point
+     */
+    @Cacheable(cacheNames = CacheNames.PORTFOLIO_RETURNS, key = "#portfolioId + ':' + #window + ':' + #points")
+    public List<PortfolioReturnResponse> getReturns(Integer portfolioId, ReturnWindow window, Integer points) throws Exception {
+        if (portfolioRepository.findByPortfolioId(portfolioId).isEmpty()) {
             throw new Exception("Portfolio not found with ID: " + portfolioId);
         }
 
-        Portfolio portfolio = portfolioOptional.get();
         LocalDateTime endDate = LocalDateTime.now();
-        LocalDateTime startDate = endDate.minusMonths(1);
-
-        // Get portfolio metrics for the last month
         List<PortfolioMetric> portfolioMetrics = portfolioMetricRepository.findByPortfolioIdAndDateBetweenOrderByLastUpdatedDateAsc(
-                portfolioId, startDate, endDate);
+                portfolioId, window.start(endDate), endDate);
         if (portfolioMetrics.isEmpty()) {
             throw new Exception("No metrics found for portfolio with ID: " + portfolioId);
         }
 
-        // Get GC=F and SPY stock IDs
-        Optional<Stock> goldStock = stockRepository.findByTickerSymbol("GC=F");
-        Optional<Stock> spyStock = stockRepository.findByTickerSymbol("SPY");
+        BenchmarkSeriesService.DailySeries goldReturns = benchmarkSeriesService.dailyReturns(BenchmarkSeriesService.GOLD);
+        BenchmarkSeriesService.DailySeries spyReturns = benchmarkSeriesService.dailyReturns(BenchmarkSeriesService.SPY);
 
-        if (goldStock.isEmpty() || spyStock.isEmpty()) {
-            throw new Exception("Required stocks (GC=F or SPY) not found");
+        if (points != null) {
+            portfolioMetrics = downsample(portfolioMetrics, points);
         }
 
-        // Get daily returns for GC=F and SPY
-        List<Map<String, Object>> goldReturns = stockPriceRepository.findDailyReturnsByTickerAndDateRange(
-                "GC=F", startDate, endDate);
-        List<Map<String, Object>> spyReturns = stockPriceRepository.findDailyReturnsByTickerAndDateRange(
-                "SPY", startDate, endDate);
-
-        // Combine the data
-        List<PortfolioReturnResponse> response = new ArrayList<>();
+        List<PortfolioReturnResponse> response = new ArrayList<>(portfolioMetrics.size());
         for (PortfolioMetric metric : portfolioMetrics) {
+            LocalDate day = metric.getLastUpdatedDate().toLocalDate();
             PortfolioReturnResponse dailyReturn = new PortfolioReturnResponse();
             dailyReturn.setDate(metric.getLastUpdatedDate());
             dailyReturn.setPortfolioReturn(metric.getDailyReturn());
-
-            // Find matching GC=F return for the same day
-            Optional<Map<String, Object>> goldReturn = goldReturns.stream()
-                    .filter(r -> {
-                        java.sql.Timestamp timestamp = (java.sql.Timestamp) r.get("date");
-                        LocalDateTime returnDate = timestamp.toLocalDateTime();
-                        return returnDate.toLocalDate().equals(metric.getLastUpdatedDate().toLocalDate());
-                    })
-                    .findFirst();
-            goldReturn.ifPresent(r -> dailyReturn.setGoldReturn(new BigDecimal(r.get("daily_return").toString())));
-
-            // Find matching SPY return for the same day
-            Optional<Map<String, Object>> spyReturn = spyReturns.stream()
-                    .filter(r -> {
-                        java.sql.Timestamp timestamp = (java.sql.Timestamp) r.get("date");
-                        LocalDateTime returnDate = timestamp.toLocalDateTime();
-                        return returnDate.toLocalDate().equals(metric.getLastUpdatedDate().toLocalDate());
-                    })
-                    .findFirst();
-            spyReturn.ifPresent(r -> dailyReturn.setSpyReturn(new BigDecimal(r.get("daily_return").toString())));
-
+            dailyReturn.setGoldReturn(goldReturns.returnOn(day));
+            dailyReturn.setSpyReturn(spyReturns.returnOn(day));
             response.add(dailyReturn);
         }
 
@@ -248,75 +172,66 @@ public class PortfolioMetricService {
     }
 
     public List<PortfolioReturnDTO> getPortfolioReturns(Integer portfolioId) {
-        // 1. Portföy verilerini al
-        List<Object[]> rows = portfolioReturnsViewRepository.findPortfolioReturns(portfolioId);
+        return getPortfolioReturns(portfolioId, DEFAULT_RETURN_POINTS);
+    }
 
-        if (rows.isEmpty()) {
+    @Cacheable(cacheNames = CacheNames.PORTFOLIO_RETURNS, key = "#portfolioId + ':normalized:' + #points")
+    public List<PortfolioReturnDTO> getPortfolioReturns(Integer portfolioId, int points) {
+        // 1. Portföy verilerini imleçten doğrudan sütunlara oku (tarihe göre sıralı gelir)
+        TimeSeries series = timeSeriesJdbcRepository.findPortfolioReturns(portfolioId,
+                readModelRefresher.isCurrent(ReadModel.NORMALIZED_RETURNS));
+
+        if (series.size() == 0) {
             return Collections.emptyList(); // Hiç veri yoksa boş dön
         }
 
-        // 2. DTO'ya dönüştür ve sırala
-        List<PortfolioReturnDTO> allData = rows.stream()
-                .map(row -> new PortfolioReturnDTO(
-                        ((Timestamp) row[1]).toLocalDateTime(),
-                        ((BigDecimal) row[2])
-                ))
-                .sorted(Comparator.comparing(PortfolioReturnDTO::getDate))
-                .collect(Collectors.toList());
-
-        // 3. Portföyün başlangıç tarihini belirle
-        LocalDateTime portfolioStartDate = allData.get(0).getDate();
-
-        // 4. SPY ve GOLD başlangıç fiyatlarını al
-        BigDecimal spyRefPrice = getStockPriceAtDate("SPY", portfolioStartDate);
-        BigDecimal goldRefPrice = getStockPriceAtDate("GC=F", portfolioStartDate);
-
-        // 5. SPY ve GOLD normalize edilmiş verileri hesapla ve DTO listesine ekle
-        List<PortfolioReturnDTO> finalData = allData.stream()
-                .map(dto -> {
-                    BigDecimal spyReturn = getNormalizedReturn("SPY", dto.getDate(), spyRefPrice);
-                    BigDecimal goldReturn = getNormalizedReturn("GC=F", dto.getDate(), goldRefPrice);
-                    return new PortfolioReturnDTO(dto.getDate(), dto.getPortfolioReturn(), spyReturn, goldReturn);
-                })
-                .collect(Collectors.toList());
-
-        // 6. Nokta sayısını düşür ve döndür
-        return reducePoints(finalData, 10, 14);
-    }
+        // 2. LTTB ile nokta sayısını düşür; fiyatlar yalnızca kalan noktalar için çözülür
+        TimeSeries reduced = TimeSeriesDownsampler.downsample(series, points);
+        List<LocalDateTime> dates = new ArrayList<>(reduced.size());
+        for (int i = 0; i < reduced.size(); i++) {
+            dates.add(reduced.dateAt(i));
+        }
 
-    private BigDecimal getStockPriceAtDate(String tickerSymbol, LocalDateTime date) {
-        StockPrice stockPrice = stockPriceRepository.findTopByTickerSymbolAndDateBeforeOrderByDateDesc(tickerSymbol, date);
-        return stockPrice != null ? stockPrice.getPrice() : BigDecimal.ONE; // 0 değil → 1 dön ki bölmede patlamasın
+        // 3. SPY ve GOLD fiyatlarını ticker başına tek sorguyla al; ilk nokta referans fiyattır
+        BigDecimal[] spyPrices = benchmarkSeriesService.pricesBefore(BenchmarkSeriesService.SPY, dates);
+        BigDecimal[] goldPrices = benchmarkSeriesService.pricesBefore(BenchmarkSeriesService.GOLD, dates);
+        BigDecimal spyRefPrice = spyPrices[0] != null ? spyPrices[0] : BigDecimal.ONE; // 0 değil → 1 dön ki bölmede patlamasın
+        BigDecimal goldRefPrice = goldPrices[0] != null ? goldPrices[0] : BigDecimal.ONE;
+
+        // 4. SPY ve GOLD normalize edilmiş verileri hesapla ve DTO listesine ekle
+        List<PortfolioReturnDTO> finalData = new ArrayList<>(reduced.size());
+        for (int i = 0; i < reduced.size(); i++) {
+            finalData.add(new PortfolioReturnDTO(dates.get(i), reduced.decimalAt(i),
+                    normalize(spyPrices[i], spyRefPrice), normalize(goldPrices[i], goldRefPrice)));
+        }
+        return finalData;
     }
 
-    private BigDecimal getNormalizedReturn(String tickerSymbol, LocalDateTime date, BigDecimal refPrice) {
-        StockPrice stockPrice = stockPriceRepository.findTopByTickerSymbolAndDateBeforeOrderByDateDesc(tickerSymbol, date);
-        if (stockPrice == null || refPrice.compareTo(BigDecimal.ZERO) == 0) {
+    private BigDecimal normalize(BigDecimal price, BigDecimal refPrice) {
+        if (price == null || refPrice.compareTo(BigDecimal.ZERO) == 0) {
             return BigDecimal.valueOf(100); // Eğer veri yoksa 100 dön, çizgi düz gider
         }
 
-        return stockPrice.getPrice()
-                .divide(refPrice, 6, BigDecimal.ROUND_HALF_UP)
+        return price
+                .divide(refPrice, 6, RoundingMode.HALF_UP)
                 .multiply(BigDecimal.valueOf(100));
     }
 
-    private List<PortfolioReturnDTO> reducePoints(List<PortfolioReturnDTO> data, int minPoints, int maxPoints) {
-        int totalCount = data.size();
-        if (totalCount <= minPoints) {
-            return data;
+    // Keeps the metrics LTTB picks on the daily return curve; missing returns are drawn at zero
+    private List<PortfolioMetric> downsample(List<PortfolioMetric> metrics, int points) {
+        long[] times = new long[metrics.size()];
+        double[] returns = new double[metrics.size()];
+        for (int i = 0; i < metrics.size(); i++) {
+            PortfolioMetric metric = metrics.get(i);
+            times[i] = Timestamp.valueOf(metric.getLastUpdatedDate()).getTime();
+            returns[i] = metric.getDailyReturn() != null ? metric.getDailyReturn().doubleValue() : 0;
         }
 
-        int targetCount = Math.min(totalCount, maxPoints);
-        List<PortfolioReturnDTO> reduced = new ArrayList<>();
-        double step = (double) (totalCount - 1) / (targetCount - 1);
-
-        for (int i = 0; i < targetCount; i++) {
-            int index = (int) Math.round(i * step);
-            reduced.add(data.get(index));
+        int[] selected = TimeSeriesDownsampler.largestTriangleThreeBuckets(times, returns, metrics.size(), points);
+        List<PortfolioMetric> reduced = new ArrayList<>(selected.length);
+        for (int index : selected) {
+            reduced.add(metrics.get(index));
         }
-
         return reduced;
     }
-
-
 }
@@ -0,0 +1,219 @@
+package com.inbest.backend.service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic treap over the latest total return of each portfolio. Every node stores the size of
+ * its subtree, so the competition rank ({@code RANK() OVER (ORDER BY total_return DESC)}) of any value
+ * is found in O(log n) by counting the strictly greater entries on one root-to-leaf path.
+ */
+public class PortfolioRankIndex
+{
+    private Node root;
+    private Map<Integer, BigDecimal> values = new HashMap<>();
+    // Bumped by every put and remove, so a reload can tell whether it raced with one
+    private long version;
+
+    public synchronized void put(int portfolioId, BigDecimal totalReturn)
+    {
+        version++;
+        BigDecimal previous = values.put(portfolioId, totalReturn);
+        if (previous != null)
+        {
+            root = remove(root, previous, portfolioId);
+        }
+        root = insert(root, new Node(totalReturn, portfolioId));
+    }
+
+    public synchronized void remove(int portfolioId)
+    {
+        version++;
+        BigDecimal previous = values.remove(portfolioId);
+        if (previous != null)
+        {
+            root = remove(root, previous, portfolioId);
+        }
+    }
+
+    public synchronized long version()
+    {
+        return version;
+    }
+
+    /**
+     * Replaces the whole index, e.g. after a reload from the database. The replacement is discarded when
+     * the index was modified since {@code expectedVersion} was read, as the reload may predate that change.
+     *
+     * @return whether the index was replaced
+     */
+    public boolean replaceAll(Map<Integer, BigDecimal> totalReturns, long expectedVersion)
+    {
+        Node rebuilt = null;
+        for (Map.Entry<Integer, BigDecimal> entry : totalReturns.entrySet())
+        {
+            rebuilt = insert(rebuilt, new Node(entry.getValue(), entry.getKey()));
+        }
+        Map<Integer, BigDecimal> copy = new HashMap<>(totalReturns);
+        synchronized (this)
+        {
+            if (version != expectedVersion)
+            {
+                return false;
+            }
+            root = rebuilt;
+            values = copy;
+            return true;
+        }
+    }
+
+    /**
+     * 1-based rank of the portfolio with ties sharing the best rank, or -1 when it is not indexed.
+     */
+    public synchronized int rankOf(int portfolioId)
+    {
+        BigDecimal value = values.get(portfolioId);
+        if (value == null)
+        {
+            return -1;
+        }
+        int greater = 0;
+        Node node = root;
+        while (node != null)
+        {
+            if (node.value.compareTo(value) > 0)
+            {
+                greater += 1 + size(node.right);
+                node = node.left;
+            }
+            else
+            {
+                node = node.right;
+            }
+        }
+        return greater + 1;
+    }
+
+    public synchronized int size()
+    {
+        return size(root);
+    }
+
+    private static int compare(BigDecimal value, int portfolioId, Node node)
+    {
+        int byValue = value.compareTo(node.value);
+        return byValue != 0 ? byValue : Integer.compare(portfolioId, node.portfolioId);
+    }
+
+    private static Node insert(Node node, Node inserted)
+    {
+        if (node == null)
+        {
+            return inserted;
+        }
+        if (inserted.priority > node.priority)
+        {
+            Node[] parts = split(node, inserted.value, inserted.portfolioId);
+            inserted.left = parts[0];
+            inserted.right = parts[1];
+            return update(inserted);
+        }
+        if (compare(inserted.value, inserted.portfolioId, node) < 0)
+        {
+            node.left = insert(node.left, inserted);
+        }
+        else
+        {
+            node.right = insert(node.right, inserted);
+        }
+        return update(node);
+    }
+
+    private static Node remove(Node node, BigDecimal value, int portfolioId)
+    {
+        if (node == null)
+        {
+            return null;
+        }
+        int cmp = compare(value, portfolioId, node);
+        if (cmp == 0)
+        {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0)
+        {
+            node.left = remove(node.left, value, portfolioId);
+        }
+        else
+        {
+            node.right = remove(node.right, value, portfolioId);
+        }
+        return update(node);
+    }
+
+    // Splits into keys lower than (value, portfolioId) and the rest
+    private static Node[] split(Node node, BigDecimal value, int portfolioId)
+    {
+        if (node == null)
+        {
+            return new Node[]{null, null};
+        }
+        if (compare(value, portfolioId, node) > 0)
+        {
+            Node[] parts = split(node.right, value, portfolioId);
+            node.right = parts[0];
+            return new Node[]{update(node), parts[1]};
+        }
+        Node[] parts = split(node.left, value, portfolioId);
+        node.left = parts[1];
+        return new Node[]{parts[0], update(node)};
+    }
+
+    private static Node merge(Node left, Node right)
+    {
+        if (left == null)
+        {
+            return right;
+        }
+        if (right == null)
+        {
+            return left;
+        }
+        if (left.priority > right.priority)
+        {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static Node update(Node node)
+    {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static int size(Node node)
+    {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node
+    {
+        private final BigDecimal value;
+        private final int portfolioId;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(BigDecimal value, int portfolioId)
+        {
+            this.value = value;
+            this.portfolioId = portfolioId;
+        }
+    }
+}
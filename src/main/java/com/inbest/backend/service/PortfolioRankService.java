@@ -0,0 +1,101 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.model.response.PortfolioRankResponse;
+import com.inbest.backend.repository.PortfolioRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers portfolio rank queries from {@link PortfolioRankIndex}. The index is loaded from the latest
+ * metric of every portfolio at startup, kept current by the in-app writers once their transaction commits,
+ * and reloaded periodically to pick up metrics written by the external metric jobs.
+ */
+@Service
+@Slf4j
+public class PortfolioRankService
+{
+    // Reloads that raced with an in-app change are redone up to this many times
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    private final PortfolioRepository portfolioRepository;
+    private final PortfolioRankIndex index = new PortfolioRankIndex();
+
+    public PortfolioRankService(PortfolioRepository portfolioRepository)
+    {
+        this.portfolioRepository = portfolioRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize()
+    {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${portfolio-rank.rebuild-interval-ms:300000}", initialDelayString = "${portfolio-rank.rebuild-interval-ms:300000}")
+    public void rebuild()
+    {
+        for (int attempt = 1; attempt <= MAX_REBUILD_ATTEMPTS; attempt++)
+        {
+            long version = index.version();
+            List<Object[]> rows = portfolioRepository.findLatestTotalReturns();
+            Map<Integer, BigDecimal> totalReturns = new HashMap<>(rows.size() * 2);
+            for (Object[] row : rows)
+            {
+                totalReturns.put(((Number) row[0]).intValue(), (BigDecimal) row[1]);
+            }
+            if (index.replaceAll(totalReturns, version))
+            {
+                log.debug("Portfolio rank index rebuilt with {} portfolios", totalReturns.size());
+                return;
+            }
+        }
+        log.debug("Portfolio rank index rebuild skipped, it kept racing with portfolio changes");
+    }
+
+    /**
+     * Records a portfolio's total return once the caller's transaction commits.
+     */
+    public void update(int portfolioId, BigDecimal totalReturn)
+    {
+        AfterCommit.run(() -> {
+            if (totalReturn == null)
+            {
+                index.remove(portfolioId);
+            }
+            else
+            {
+                index.put(portfolioId, totalReturn);
+            }
+        });
+    }
+
+    public void remove(int portfolioId)
+    {
+        AfterCommit.run(() -> index.remove(portfolioId));
+    }
+
+    public PortfolioRankResponse getPortfolioRank(int portfolioId)
+    {
+        int rank;
+        int total;
+        synchronized (index)
+        {
+            rank = index.rankOf(portfolioId);
+            total = index.size();
+        }
+        if (rank < 0)
+        {
+            throw new EntityNotFoundException("Portfolio not found or has no total_return data.");
+        }
+        return new PortfolioRankResponse(rank, total);
+    }
+}
@@ -1,6 +1,7 @@
 package com.inbest.backend.service;
 
 import com.inbest.backend.dto.PortfolioDTO;
+import com.inbest.backend.event.PortfolioChangedEvent;
 import com.inbest.backend.model.position.PortfolioMetric;
 import com.inbest.backend.model.response.PortfolioGetResponse;
 import com.inbest.backend.model.Portfolio;
@@ -8,9 +9,8 @@ import com.inbest.backend.model.User;
 import com.inbest.backend.model.response.PortfolioRankResponse;
 import com.inbest.backend.repository.PortfolioMetricRepository;
 import com.inbest.backend.repository.PortfolioRepository;
-import com.inbest.backend.repository.UserRepository;
-import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -20,7 +20,6 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -33,7 +32,13 @@ public class PortfolioService
     @Autowired
     private PortfolioMetricRepository portfolioMetricRepository;
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
+    @Autowired
+    private PortfolioRankService portfolioRankService;
+    @Autowired
+    private PortfolioValuationEngine portfolioValuationEngine;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public PortfolioService(UserService userService) {
         this.userService = userService;
@@ -47,11 +52,7 @@ public class PortfolioService
 
     public int createPortfolio(PortfolioDTO portfolioDTO)
     {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-        System.out.println(username);
-        User user = userRepository.findByUsername(username).orElseThrow();
-        System.out.println(user);
+        User user = userService.getCurrentUser();
         if (doesPortfolioNameExist(portfolioDTO.getPortfolioName()))
         {
             throw new IllegalArgumentException("Portfolio name already exists!");
@@ -81,15 +82,16 @@ public class PortfolioService
         portfolioMetric.setRiskScore(BigDecimal.ZERO);
         portfolioMetric.setRiskCategory("Conservative");
         portfolioMetricRepository.save(portfolioMetric);
+        portfolioRankService.update(insertedPortfolio.getPortfolioId(), portfolioMetric.getTotalReturn());
+        eventPublisher.publishEvent(new PortfolioChangedEvent(insertedPortfolio.getPortfolioId()));
 
         return insertedPortfolio.getPortfolioId();
     }
 
     public void updatePortfolio(int id, PortfolioDTO portfolioDTO)
     {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-        User user = userRepository.findByUsername(username).orElseThrow();
+        User user = userService.getCurrentUser();
+        String username = user.getUsername();
 
         Optional<Portfolio> portfolio = portfolioRepository.findById(Long.valueOf(id));
         if (!portfolio.isPresent())
@@ -115,6 +117,7 @@ public class PortfolioService
         existingPortfolio.setLastUpdatedDate(LocalDateTime.now(ZoneId.of("UTC")));
 
         portfolioRepository.save(existingPortfolio);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(existingPortfolio.getPortfolioId()));
     }
 
     public void deletePortfolio(int id) {
@@ -127,6 +130,9 @@ public class PortfolioService
         }
 
         portfolioRepository.delete(portfolio);
+        portfolioRankService.remove(id);
+        portfolioValuationEngine.removePortfolio(id);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(id));
     }
 
     public PortfolioGetResponse getPortfolioById(int id, String username)
@@ -168,10 +174,7 @@ public class PortfolioService
 
     public List<PortfolioGetResponse> getAllPortfolios()
     {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        User user = userService.getCurrentUser();
 
         List<Portfolio> portfolios = portfolioRepository.findByUser(user);
         return portfolios.stream().map(portfolio -> new PortfolioGetResponse(
@@ -195,7 +198,7 @@ public class PortfolioService
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String authName = auth.getName();
 
-        User user = userRepository.findByUsername(username)
+        User user = userCache.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         List<Portfolio> portfolios;
@@ -220,16 +223,6 @@ public class PortfolioService
 
     public PortfolioRankResponse getPortfolioRank(int portfolioId)
     {
-        Map<String, Object> result = portfolioRepository.findPortfolioRankAndTotal(portfolioId);
-
-        if (result == null || result.isEmpty())
-        {
-            throw new EntityNotFoundException("Portfolio not found or has no total_return data.");
-        }
-
-        return new PortfolioRankResponse(
-                (Integer) result.get("portfolio_rank"),
-                ((Number) result.get("total_portfolios")).intValue()
-        );
+        return portfolioRankService.getPortfolioRank(portfolioId);
     }
 }
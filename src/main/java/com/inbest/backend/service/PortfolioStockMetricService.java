@@ -1,16 +1,15 @@
 package com.inbest.backend.service;
 
-import com.inbest.backend.model.Portfolio;
-import com.inbest.backend.model.PortfolioStockModel;
-import com.inbest.backend.model.User;
-import com.inbest.backend.model.position.PortfolioStockMetric;
-import com.inbest.backend.model.response.PortfolioStockResponse;
+import com.inbest.backend.cache.CacheNames;
+import com.inbest.backend.model.TimeSeries;
 import com.inbest.backend.repository.*;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -21,49 +20,61 @@ public class PortfolioStockMetricService
     private final AuthenticationService authenticationService;
     private final PortfolioRepository portfolioRepository;
     private final PortfolioStockMetricRepository portfolioStockMetricRepository;
-    private final PortfolioStockRepository portfolioStockRepository;
     private final PortfolioService portfolioService;
-    private final UserRepository userRepository;
     private final InvestmentActivityRepository investmentActivityRepository;
+    private final PortfolioValuationEngine portfolioValuationEngine;
+    private final TimeSeriesJdbcRepository timeSeriesJdbcRepository;
 
     public List<Map<String, Object>> getStocksAndMetrics(int portfolioID) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
+        Optional<PortfolioValuationEngine.Valuation> valuation = portfolioValuationEngine.getValuation(portfolioID);
+        if (valuation.isEmpty()) {
+            return List.of();
+        }
 
-        Optional<User> user = userRepository.findByUsername(username);
-            List<PortfolioStockModel> stocks = portfolioStockRepository.findByPortfolio_PortfolioId((long) portfolioID);
-            return stocks.stream()
-                    .map(stock -> {
-                        Optional<PortfolioStockMetric> metricOpt = portfolioStockMetricRepository
-                                .findTopByPortfolioIdAndStockIdOrderByDateDesc(portfolioID, stock.getStock().getStockId());
+        Map<Integer, LocalDateTime> openDates = new HashMap<>();
+        for (Object[] row : investmentActivityRepository.findLatestOpenDatesByPortfolioId(portfolioID)) {
+            openDates.put(((Number) row[0]).intValue(), (LocalDateTime) row[1]);
+        }
 
-                        if (metricOpt.isPresent())
-                        {
-                            PortfolioStockMetric metric = metricOpt.get();
-                            Map<String, Object> map = new HashMap<>();
-                            map.put("stock_id", metric.getStockId());
-                            map.put("symbol", stock.getStock().getTickerSymbol());
-                            map.put("name", stock.getStock().getStockName());
-                            map.put("shares", metric.getQuantity());
-                            map.put("allocation", metric.getPositionWeight());
-                            map.put("averageprice", metric.getAverageCost());
-                            map.put("currentprice", metric.getCurrentValue());
-                            map.put("return", metric.getTotalReturn());
-                            Optional<LocalDateTime> openDate = investmentActivityRepository
-                                    .findLatestOpenDateByPortfolioIdAndStockId(
-                                            (long) portfolioID,
-                                            Long.valueOf(stock.getStock().getStockId()));
-                            map.put("open_date", openDate.orElse(null));
-                            return map;
-                        }
-                        return null;
-                    })
-                    .filter(Objects::nonNull)
-                    .toList();
+        List<Map<String, Object>> holdings = new ArrayList<>();
+        for (PortfolioValuationEngine.PositionValuation position : valuation.get().getPositions()) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("stock_id", position.getStockId());
+            map.put("symbol", position.getTickerSymbol());
+            map.put("name", position.getStockName());
+            map.put("shares", position.getQuantity());
+            map.put("allocation", BigDecimal.valueOf(position.getWeight()).setScale(4, RoundingMode.HALF_UP));
+            map.put("averageprice", BigDecimal.valueOf(position.getAverageCost()).setScale(2, RoundingMode.HALF_UP));
+            map.put("currentprice", BigDecimal.valueOf(position.getPrice()).setScale(2, RoundingMode.HALF_UP));
+            map.put("return", BigDecimal.valueOf(position.getTotalReturn()).setScale(4, RoundingMode.HALF_UP));
+            map.put("market_value", BigDecimal.valueOf(position.getMarketValue()).setScale(2, RoundingMode.HALF_UP));
+            map.put("unrealized_pnl", BigDecimal.valueOf(position.getUnrealizedPnl()).setScale(2, RoundingMode.HALF_UP));
+            map.put("open_date", openDates.get(position.getStockId()));
+            holdings.add(map);
+        }
+        return holdings;
     }
 
-    public List<Map<String, Object>> getDailyMetrics(int portfolioID) {
-            return portfolioStockMetricRepository.findDailyMetricsByPortfolioId(portfolioID);
+    /**
+     * Last daily total return of every position over the past 30 days, oldest first.
+     *
+     * @param points number of points to downsample each position's series to, or {@code null} for every point
+     */
+    @Cacheable(cacheNames = CacheNames.POSITION_RETURNS, key = "#portfolioID + ':' + #points")
+    public List<Map<String, Object>> getDailyMetrics(int portfolioID, Integer points) {
+        List<Map<String, Object>> metrics = new ArrayList<>();
+        for (Map.Entry<String, TimeSeries> entry : timeSeriesJdbcRepository.findDailyPositionReturns(portfolioID).entrySet()) {
+            TimeSeries series = points != null ? TimeSeriesDownsampler.downsample(entry.getValue(), points) : entry.getValue();
+            for (int i = 0; i < series.size(); i++) {
+                Map<String, Object> metric = new LinkedHashMap<>();
+                metric.put("symbol", entry.getKey());
+                metric.put("return", series.decimalAt(i));
+                metric.put("date", new Timestamp(series.timeAt(i)));
+                metrics.add(metric);
+            }
+        }
+        metrics.sort(Comparator.comparing(metric -> (Timestamp) metric.get("date")));
+        return metrics;
     }
 
 }
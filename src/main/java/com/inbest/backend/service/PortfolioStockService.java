@@ -1,14 +1,16 @@
 package com.inbest.backend.service;
 
 import com.inbest.backend.dto.InvestmentActivityResponseDTO;
+import com.inbest.backend.event.PortfolioChangedEvent;
 import com.inbest.backend.model.*;
+import com.inbest.backend.model.position.CurrentPosition;
 import com.inbest.backend.model.position.PortfolioStockMetric;
 import com.inbest.backend.repository.*;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
 import java.math.RoundingMode;
 import java.sql.Timestamp;
 import java.time.*;
@@ -25,21 +27,30 @@ public class PortfolioStockService
     private final PortfolioRepository portfolioRepository;
     private final StockRepository stockRepository;
     private final PortfolioStockMetricRepository portfolioStockMetricRepository;
+    private final CurrentPositionRepository currentPositionRepository;
     private final InvestmentActivityRepository investmentActivityRepository;
     private final TradeMetricsRepository tradeMetricsRepository;
+    private final PriceCache priceCache;
+    private final PortfolioValuationEngine portfolioValuationEngine;
+    private final ApplicationEventPublisher eventPublisher;
 
 
-    public PortfolioStockService(PortfolioStockRepository portfolioStockRepository, PortfolioRepository portfolioRepository, StockRepository stockRepository, PortfolioStockMetricRepository portfolioStockMetricRepository, InvestmentActivityRepository investmentActivityRepository, TradeMetricsRepository tradeMetricsRepository)
+    public PortfolioStockService(PortfolioStockRepository portfolioStockRepository, PortfolioRepository portfolioRepository, StockRepository stockRepository, PortfolioStockMetricRepository portfolioStockMetricRepository, CurrentPositionRepository currentPositionRepository, InvestmentActivityRepository investmentActivityRepository, TradeMetricsRepository tradeMetricsRepository, PriceCache priceCache, PortfolioValuationEngine portfolioValuationEngine, ApplicationEventPublisher eventPublisher)
     {
         this.portfolioStockRepository = portfolioStockRepository;
         this.portfolioRepository = portfolioRepository;
         this.stockRepository = stockRepository;
         this.portfolioStockMetricRepository = portfolioStockMetricRepository;
+        this.currentPositionRepository = currentPositionRepository;
         this.investmentActivityRepository = investmentActivityRepository;
         this.tradeMetricsRepository = tradeMetricsRepository;
+        this.priceCache = priceCache;
+        this.portfolioValuationEngine = portfolioValuationEngine;
+        this.eventPublisher = eventPublisher;
     }
 
 
+    @Transactional
     public InvestmentActivityResponseDTO addStockToPortfolio(Integer portfolioId, String tickerName, Double quantity) throws Exception
     {
         LocalDateTime latestDate = portfolioStockMetricRepository.findLatestDateByPortfolioId(portfolioId);
@@ -98,6 +109,8 @@ public class PortfolioStockService
             throw new IllegalArgumentException("Quantity must be greater than zero");
         }
 
+        BigDecimal currentPrice = priceCache.priceOf(stock);
+
         PortfolioStockModel portfolioStockModel = PortfolioStockModel.builder()
                 .portfolio(portfolio)
                 .stock(stock)
@@ -120,8 +133,8 @@ public class PortfolioStockService
                 .stockId(stock.getStockId())
                 .date(latestDate)
                 .quantity(quantity)
-                .averageCost(BigDecimal.valueOf(stock.getCurrentPrice()))
-                .currentValue(BigDecimal.valueOf(stock.getCurrentPrice()))
+                .averageCost(currentPrice)
+                .currentValue(currentPrice)
                 .totalReturn(BigDecimal.valueOf(0))
                 .positionWeight(BigDecimal.valueOf(0))
                 .lastTransactionType("OPEN")
@@ -129,11 +142,12 @@ public class PortfolioStockService
                 .build();
 
         portfolioStockMetricRepository.save(portfolioStockMetric);
-        PortfolioStockMetric portfolioStockMetricNew = portfolioStockMetricRepository.findTopByPortfolioIdAndStockIdOrderByDateDesc(portfolioId, stock.getStockId()).orElseThrow(() -> new Exception("Metrics not found"));
+        portfolioValuationEngine.setPosition(portfolioId, stock.getStockId(), stock.getTickerSymbol(), stock.getStockName(), quantity, currentPrice);
 
         recalculatePositionWeights(portfolioId);
-        activity.setNewPositionWeight(portfolioStockMetricNew.getPositionWeight());
+        activity.setNewPositionWeight(findCurrentPosition(portfolioId, stock.getStockId()).getPositionWeight());
         investmentActivityRepository.save(activity);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId));
         return convertToResponseDTO(activity);
     }
 
@@ -156,14 +170,12 @@ public class PortfolioStockService
 
         String transactionType = quantity < portfolioStockModel.getQuantity() ? "SELL" : "BUY";
 
-        PortfolioStockMetric portfolioStockMetric = portfolioStockMetricRepository
-                .findTopByPortfolioIdAndStockIdOrderByDateDesc(portfolioId, stock.getStockId())
-                .orElseThrow(() -> new Exception("Metrics not found"));
+        CurrentPosition currentPosition = findCurrentPosition(portfolioId, stock.getStockId());
 
-        Double oldQuantity = portfolioStockMetric.getQuantity();
-        BigDecimal currentPrice = BigDecimal.valueOf(stock.getCurrentPrice());
+        Double oldQuantity = currentPosition.getQuantity();
+        BigDecimal currentPrice = priceCache.priceOf(stock);
 
-        BigDecimal avgCost = portfolioStockMetric.getAverageCost();
+        BigDecimal avgCost = currentPosition.getAverageCost();
         BigDecimal totalReturn;
         InvestmentActivity activity = new InvestmentActivity();
         if (transactionType.equals("BUY"))
@@ -178,7 +190,7 @@ public class PortfolioStockService
             activity.setStockQuantity(quantity - oldQuantity);
             activity.setDate(LocalDateTime.now());
             activity.setActionType(InvestmentActivity.ActionType.BUY);
-            activity.setOldPositionWeight(portfolioStockMetric.getPositionWeight());
+            activity.setOldPositionWeight(currentPosition.getPositionWeight());
         }
         else
         {
@@ -187,8 +199,8 @@ public class PortfolioStockService
             activity.setStockQuantity(oldQuantity - quantity);
             activity.setDate(LocalDateTime.now());
             activity.setActionType(InvestmentActivity.ActionType.SELL);
-            activity.setOldPositionWeight(portfolioStockMetric.getPositionWeight());
-            recordTradeOnSell(portfolioId, stock.getStockId(), oldQuantity - quantity, avgCost, BigDecimal.valueOf(stock.getCurrentPrice()));
+            activity.setOldPositionWeight(currentPosition.getPositionWeight());
+            recordTradeOnSell(portfolioId, stock.getStockId(), oldQuantity - quantity, avgCost, currentPrice);
 
         }
 
@@ -197,21 +209,27 @@ public class PortfolioStockService
         portfolioStockModel.setQuantity(quantity);
         portfolioStockRepository.save(portfolioStockModel);
 
-        portfolioStockMetric.setQuantity(quantity);
-        portfolioStockMetric.setAverageCost(avgCost);
-        portfolioStockMetric.setCurrentValue(BigDecimal.valueOf(stock.getCurrentPrice()));
-        portfolioStockMetric.setTotalReturn(totalReturn);
-        portfolioStockMetric.setLastTransactionType(transactionType);
-        portfolioStockMetric.setLastTransactionDate(Timestamp.from(Instant.now()).toLocalDateTime());
-        portfolioStockMetric.setLastUpdated(Timestamp.from(Instant.now()).toLocalDateTime());
+        // Rewrites the position's latest snapshot; the current position follows it
+        PortfolioStockMetric portfolioStockMetric = PortfolioStockMetric.builder()
+                .portfolioId(portfolioId)
+                .stockId(stock.getStockId())
+                .date(currentPosition.getDate())
+                .quantity(quantity)
+                .averageCost(avgCost)
+                .currentValue(currentPrice)
+                .totalReturn(totalReturn)
+                .positionWeight(currentPosition.getPositionWeight())
+                .lastTransactionType(transactionType)
+                .lastTransactionDate(Timestamp.from(Instant.now()).toLocalDateTime())
+                .lastUpdated(Timestamp.from(Instant.now()).toLocalDateTime())
+                .build();
         portfolioStockMetricRepository.save(portfolioStockMetric);
+        portfolioValuationEngine.setPosition(portfolioId, stock.getStockId(), stock.getTickerSymbol(), stock.getStockName(), quantity, avgCost);
 
         recalculatePositionWeights(portfolioId);
-        PortfolioStockMetric newPortfolioStockMetric = portfolioStockMetricRepository
-                .findTopByPortfolioIdAndStockIdOrderByDateDesc(portfolioId, stock.getStockId())
-                .orElseThrow(() -> new Exception("Metrics not found"));
-        activity.setNewPositionWeight(newPortfolioStockMetric.getPositionWeight());
+        activity.setNewPositionWeight(findCurrentPosition(portfolioId, stock.getStockId()).getPositionWeight());
         investmentActivityRepository.save(activity);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId));
         return convertToResponseDTO(activity);
 
     }
@@ -219,14 +237,12 @@ public class PortfolioStockService
     @Transactional
     public InvestmentActivityResponseDTO removeStockFromPortfolio(Integer portfolioId, String tickerName) throws Exception
     {
-        LocalDateTime latestDate = portfolioStockMetricRepository.findLatestDateByPortfolioId(portfolioId);
-
         Portfolio portfolio = portfolioRepository.findById(Long.valueOf(portfolioId)).orElseThrow(() -> new Exception("Portfolio not found"));
         Stock stock = stockRepository.findByTickerSymbol(tickerName).orElseThrow(() -> new Exception("Stock not found"));
         PortfolioStockModel portfolioStock = portfolioStockRepository
                 .findByPortfolio_PortfolioIdAndStock_StockId(portfolioId, stock.getStockId())
                 .orElseThrow(() -> new Exception("Portfolio stock not found !"));
-        PortfolioStockMetric portfolioStockMetric = portfolioStockMetricRepository.findTopByPortfolioIdAndStockIdOrderByDateDesc(portfolioId, stock.getStockId()).orElseThrow(() -> new Exception("Metrics not found"));
+        CurrentPosition currentPosition = findCurrentPosition(portfolioId, stock.getStockId());
 
         boolean stockExistInPortfolioStock = portfolioStockRepository.existsByPortfolioAndStock(portfolio, stock);
         if (!stockExistInPortfolioStock)
@@ -239,15 +255,18 @@ public class PortfolioStockService
         activity.setStockQuantity(portfolioStock.getQuantity());
         activity.setDate(LocalDateTime.now());
         activity.setActionType(InvestmentActivity.ActionType.CLOSE);
-        activity.setOldPositionWeight(portfolioStockMetric.getPositionWeight());
+        activity.setOldPositionWeight(currentPosition.getPositionWeight());
         activity.setNewPositionWeight(BigDecimal.ZERO);
 
         investmentActivityRepository.save(activity);
         portfolioStockRepository.deleteByPortfolio_PortfolioIdAndStock_StockId(portfolioId, stock.getStockId());
-        portfolioStockMetricRepository.deleteByPortfolioIdAndStockIdAndDate(portfolioId, stock.getStockId(),latestDate);
+        // Dropping the latest snapshot closes the current position as well
+        portfolioStockMetricRepository.deleteByPortfolioIdAndStockIdAndDate(portfolioId, stock.getStockId(), currentPosition.getDate());
+        portfolioValuationEngine.removePosition(portfolioId, stock.getTickerSymbol());
 
-        recordTradeOnSell(portfolioId, stock.getStockId(), portfolioStockMetric.getQuantity(), portfolioStockMetric.getAverageCost(), BigDecimal.valueOf(stock.getCurrentPrice()));
+        recordTradeOnSell(portfolioId, stock.getStockId(), currentPosition.getQuantity(), currentPosition.getAverageCost(), priceCache.priceOf(stock));
         recalculatePositionWeights(portfolioId);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId));
         return convertToResponseDTO(activity);
     }
 
@@ -261,29 +280,13 @@ public class PortfolioStockService
             throw new Exception("No records found for the portfolio");
         }
 
-        List<PortfolioStockMetric> metrics = portfolioStockMetricRepository.findByPortfolioIdAndDate(portfolioId, latestDate);
-
-        BigDecimal totalWeightedValue = metrics.stream()
-                .map(metric -> metric.getAverageCost().multiply(BigDecimal.valueOf(metric.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        if (totalWeightedValue.compareTo(BigDecimal.ZERO) == 0)
-        {
-            for (PortfolioStockMetric metric : metrics)
-            {
-                metric.setPositionWeight(BigDecimal.ZERO);
-                portfolioStockMetricRepository.save(metric);
-            }
-            return;
-        }
+        portfolioStockMetricRepository.recalculatePositionWeights(portfolioId, latestDate);
+    }
 
-        for (PortfolioStockMetric metric : metrics)
-        {
-            BigDecimal weightedValue = metric.getAverageCost().multiply(BigDecimal.valueOf(metric.getQuantity()));
-            BigDecimal positionWeight = weightedValue.divide(totalWeightedValue, MathContext.DECIMAL128);
-            metric.setPositionWeight(positionWeight);
-            portfolioStockMetricRepository.save(metric);
-        }
+    private CurrentPosition findCurrentPosition(Integer portfolioId, Integer stockId) throws Exception
+    {
+        return currentPositionRepository.findByPortfolioIdAndStockId(portfolioId, stockId)
+                .orElseThrow(() -> new Exception("Metrics not found"));
     }
 
     private InvestmentActivityResponseDTO convertToResponseDTO(InvestmentActivity activity)
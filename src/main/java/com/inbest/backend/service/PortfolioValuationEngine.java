@@ -0,0 +1,345 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.repository.CurrentPositionRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live market value, unrealized P&L and market-value weights of every portfolio, kept in memory.
+ * Holdings are loaded from the current positions table and kept up to date by the trade paths in
+ * {@link PortfolioStockService} once their transaction commits; prices come from {@link PriceCache}.
+ * A price change revalues only the portfolios that hold the ticker, and every revaluation publishes
+ * an immutable {@link Valuation}. Revaluations under the lock only read cached prices, so a price
+ * missing from the cache is loaded before the lock is taken.
+ */
+@Service
+@Slf4j
+public class PortfolioValuationEngine implements PriceChangeListener
+{
+    // Reloads that raced with a trade are redone up to this many times
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    private final CurrentPositionRepository currentPositionRepository;
+    private final PriceCache priceCache;
+
+    // Guarded by this; readers only touch the published valuations
+    private final Map<Integer, Map<String, Holding>> holdings = new HashMap<>();
+    private final TickerPortfolioIndex tickerIndex = new TickerPortfolioIndex();
+    private final Map<Integer, Valuation> valuations = new ConcurrentHashMap<>();
+    // Bumped by every trade update, so a reload can tell whether it raced with one; guarded by this
+    private long version;
+
+    public PortfolioValuationEngine(CurrentPositionRepository currentPositionRepository, PriceCache priceCache)
+    {
+        this.currentPositionRepository = currentPositionRepository;
+        this.priceCache = priceCache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize()
+    {
+        priceCache.subscribe(this);
+        rebuild();
+    }
+
+    /**
+     * Reloads all holdings, picking up positions written outside the application.
+     */
+    @Scheduled(fixedDelayString = "${portfolio-valuation.rebuild-interval-ms:300000}", initialDelayString = "${portfolio-valuation.rebuild-interval-ms:300000}")
+    public void rebuild()
+    {
+        for (int attempt = 1; attempt <= MAX_REBUILD_ATTEMPTS; attempt++)
+        {
+            long expectedVersion;
+            synchronized (this)
+            {
+                expectedVersion = version;
+            }
+            List<Object[]> rows = currentPositionRepository.findHoldings();
+            for (Object[] row : rows)
+            {
+                loadPrice((String) row[2]);
+            }
+            if (replaceHoldings(rows, expectedVersion))
+            {
+                log.debug("Portfolio valuations rebuilt for {} portfolios", valuations.size());
+                return;
+            }
+        }
+        log.debug("Portfolio valuation rebuild skipped, it kept racing with trades");
+    }
+
+    // Swaps in the reloaded holdings unless a trade was applied since the reload started
+    private synchronized boolean replaceHoldings(List<Object[]> rows, long expectedVersion)
+    {
+        if (version != expectedVersion)
+        {
+            return false;
+        }
+        String[] tickerSymbols = new String[rows.size()];
+        int[] portfolioIds = new int[rows.size()];
+        holdings.clear();
+        for (int i = 0; i < rows.size(); i++)
+        {
+            Object[] row = rows.get(i);
+            Holding holding = holding(row);
+            portfolioIds[i] = ((Number) row[0]).intValue();
+            tickerSymbols[i] = holding.tickerSymbol;
+            holdings.computeIfAbsent(portfolioIds[i], id -> new HashMap<>()).put(holding.tickerSymbol, holding);
+        }
+        tickerIndex.replaceAll(tickerSymbols, portfolioIds);
+        valuations.keySet().retainAll(holdings.keySet());
+        for (Integer portfolioId : holdings.keySet())
+        {
+            revalue(portfolioId);
+        }
+        return true;
+    }
+
+    /**
+     * Records a new or changed position after a trade, once the caller's transaction commits.
+     */
+    public void setPosition(int portfolioId, int stockId, String tickerSymbol, String stockName,
+                            double quantity, BigDecimal averageCost)
+    {
+        Holding holding = new Holding(stockId, tickerSymbol, stockName, quantity, averageCost.doubleValue());
+        AfterCommit.run(() -> {
+            loadPrice(tickerSymbol);
+            synchronized (this)
+            {
+                version++;
+                add(portfolioId, holding);
+                revalue(portfolioId);
+            }
+        });
+    }
+
+    /**
+     * Drops a closed position, once the caller's transaction commits.
+     */
+    public void removePosition(int portfolioId, String tickerSymbol)
+    {
+        AfterCommit.run(() -> applyRemovePosition(portfolioId, tickerSymbol));
+    }
+
+    public void removePortfolio(int portfolioId)
+    {
+        AfterCommit.run(() -> applyRemovePortfolio(portfolioId));
+    }
+
+    private synchronized void applyRemovePosition(int portfolioId, String tickerSymbol)
+    {
+        version++;
+        Map<String, Holding> positions = holdings.get(portfolioId);
+        if (positions == null || positions.remove(tickerSymbol) == null)
+        {
+            return;
+        }
+        tickerIndex.remove(tickerSymbol, portfolioId);
+        if (positions.isEmpty())
+        {
+            holdings.remove(portfolioId);
+            valuations.remove(portfolioId);
+        }
+        else
+        {
+            revalue(portfolioId);
+        }
+    }
+
+    private synchronized void applyRemovePortfolio(int portfolioId)
+    {
+        version++;
+        Map<String, Holding> positions = holdings.remove(portfolioId);
+        if (positions != null)
+        {
+            for (String tickerSymbol : positions.keySet())
+            {
+                tickerIndex.remove(tickerSymbol, portfolioId);
+            }
+        }
+        valuations.remove(portfolioId);
+    }
+
+    @Override
+    public void onPriceChange(PriceCache.Entry previous, PriceCache.Entry current)
+    {
+        // Lock-free lookup, so ticks for tickers nobody holds never contend with trades
+        int[] portfolioIds = tickerIndex.portfoliosHolding(current.getTickerSymbol());
+        if (portfolioIds.length == 0)
+        {
+            return;
+        }
+        synchronized (this)
+        {
+            for (int portfolioId : portfolioIds)
+            {
+                revalue(portfolioId);
+            }
+        }
+    }
+
+    /**
+     * Current valuation of the portfolio. A portfolio the engine has not valued yet, e.g. before the first
+     * load finished, is valued from its stored positions instead; empty when it holds nothing.
+     */
+    public Optional<Valuation> getValuation(int portfolioId)
+    {
+        Valuation valuation = valuations.get(portfolioId);
+        if (valuation != null)
+        {
+            return Optional.of(valuation);
+        }
+        List<Object[]> rows = currentPositionRepository.findHoldingsByPortfolioId(portfolioId);
+        if (rows.isEmpty())
+        {
+            return Optional.empty();
+        }
+        Holding[] held = new Holding[rows.size()];
+        double[] prices = new double[held.length];
+        for (int i = 0; i < held.length; i++)
+        {
+            Holding holding = holding(rows.get(i));
+            held[i] = holding;
+            prices[i] = priceCache.get(holding.tickerSymbol).map(PriceCache.Entry::getPrice).orElse(holding.averageCost);
+        }
+        return Optional.of(value(portfolioId, held, prices));
+    }
+
+    /**
+     * Sorted ids of the portfolios currently holding the ticker.
+     */
+    public int[] portfoliosHolding(String tickerSymbol)
+    {
+        return tickerIndex.portfoliosHolding(tickerSymbol);
+    }
+
+    // Caches a missing price before a revaluation needs it under the lock
+    private void loadPrice(String tickerSymbol)
+    {
+        if (priceCache.peek(tickerSymbol).isEmpty())
+        {
+            priceCache.get(tickerSymbol);
+        }
+    }
+
+    // Row of portfolio_id, stock_id, ticker_symbol, stock_name, quantity, average_cost
+    private static Holding holding(Object[] row)
+    {
+        return new Holding(
+                ((Number) row[1]).intValue(),
+                (String) row[2],
+                (String) row[3],
+                ((Number) row[4]).doubleValue(),
+                ((Number) row[5]).doubleValue());
+    }
+
+    private void add(int portfolioId, Holding holding)
+    {
+        holdings.computeIfAbsent(portfolioId, id -> new HashMap<>()).put(holding.tickerSymbol, holding);
+        tickerIndex.add(holding.tickerSymbol, portfolioId);
+    }
+
+    private void revalue(int portfolioId)
+    {
+        Map<String, Holding> positions = holdings.get(portfolioId);
+        if (positions == null)
+        {
+            valuations.remove(portfolioId);
+            return;
+        }
+
+        Holding[] held = positions.values().toArray(new Holding[0]);
+        double[] prices = new double[held.length];
+        for (int i = 0; i < held.length; i++)
+        {
+            // Without a quote the position is carried at cost
+            prices[i] = priceCache.peek(held[i].tickerSymbol).map(PriceCache.Entry::getPrice).orElse(held[i].averageCost);
+        }
+        valuations.put(portfolioId, value(portfolioId, held, prices));
+    }
+
+    private static Valuation value(int portfolioId, Holding[] held, double[] prices)
+    {
+        int size = held.length;
+        double marketValue = 0;
+        double costBasis = 0;
+        for (int i = 0; i < size; i++)
+        {
+            marketValue += held[i].quantity * prices[i];
+            costBasis += held[i].quantity * held[i].averageCost;
+        }
+
+        List<PositionValuation> valued = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+        {
+            Holding holding = held[i];
+            double positionValue = holding.quantity * prices[i];
+            double positionCost = holding.quantity * holding.averageCost;
+            valued.add(new PositionValuation(
+                    holding.stockId,
+                    holding.tickerSymbol,
+                    holding.stockName,
+                    holding.quantity,
+                    holding.averageCost,
+                    prices[i],
+                    positionValue,
+                    positionValue - positionCost,
+                    marketValue == 0 ? 0 : positionValue / marketValue,
+                    holding.averageCost == 0 ? 0 : prices[i] / holding.averageCost - 1));
+        }
+        valued.sort(Comparator.comparingDouble(PositionValuation::getMarketValue).reversed()
+                .thenComparing(PositionValuation::getTickerSymbol));
+
+        return new Valuation(portfolioId, marketValue, costBasis, marketValue - costBasis,
+                Collections.unmodifiableList(valued), Instant.now());
+    }
+
+    @AllArgsConstructor
+    private static final class Holding
+    {
+        private final int stockId;
+        private final String tickerSymbol;
+        private final String stockName;
+        private final double quantity;
+        private final double averageCost;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Valuation
+    {
+        private final int portfolioId;
+        private final double marketValue;
+        private final double costBasis;
+        private final double unrealizedPnl;
+        private final List<PositionValuation> positions;
+        private final Instant valuedAt;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class PositionValuation
+    {
+        private final int stockId;
+        private final String tickerSymbol;
+        private final String stockName;
+        private final double quantity;
+        private final double averageCost;
+        private final double price;
+        private final double marketValue;
+        private final double unrealizedPnl;
+        private final double weight;
+        private final double totalReturn;
+    }
+}
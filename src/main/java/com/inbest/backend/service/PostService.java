@@ -8,18 +8,21 @@ import com.inbest.backend.model.User;
 import com.inbest.backend.repository.InvestmentActivityRepository;
 import com.inbest.backend.repository.LikeRepository;
 import com.inbest.backend.repository.PostRepository;
-import com.inbest.backend.repository.UserRepository;
+import com.inbest.backend.repository.TimelineRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,20 +30,16 @@ import java.util.stream.Collectors;
 public class PostService
 {
     private final PostRepository postRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final InvestmentActivityRepository investmentActivityRepository;
-    private final FollowService followService;
     private final LikeRepository likeRepository;
     private final UserService userService;
+    private final TimelineRepository timelineRepository;
 
     @Transactional
     public PostResponseDTO createPost(PostCreateDTO postDTO)
     {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        User user = userService.getCurrentUser();
 
         InvestmentActivity investmentActivity = investmentActivityRepository.findById(postDTO.getInvestmentActivityId())
                 .orElseThrow(() -> new IllegalStateException("Investment activity not found"));
@@ -55,45 +54,20 @@ public class PostService
 
 
         Post savedPost = postRepository.save(post);
+        timelineRepository.fanOutPost(savedPost.getId());
         return convertToDTO(savedPost);
     }
 
     public List<PostResponseDTO> getAllPosts()
     {
-        return postRepository.findAllPublicPosts().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(postRepository.findAllPublicPosts());
     }
 
     public List<PostResponseDTO> getPostsFromFollowedUsers(int page, int size)
     {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
+        User user = userService.getCurrentUser();
 
-        userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-
-        List<FollowDTO> followedUsers = followService.getFollowing(username);
-        List<User> users = followedUsers.stream()
-                .map(followDTO -> userRepository.findByUsername(followDTO.getUsername())
-                        .orElseThrow(() -> new UserNotFoundException("User not found")))
-                .collect(Collectors.toList());
-
-        List<Post> posts = postRepository.findPublicPostsByUsersOrderByCreatedAtDesc(users);
-        if (posts.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        int startIndex = (page - 1) * size;
-        if (startIndex >= posts.size()) {
-            return new ArrayList<>();
-        }
-
-        return posts.stream()
-                .skip(startIndex)
-                .limit(size)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(timelineRepository.findTimelinePosts(user.getId(), PageRequest.of(page - 1, size)));
     }
 
     public Optional<PostResponseDTO> getPostById(Long id)
@@ -103,7 +77,7 @@ public class PostService
     }
 
     public List<PostResponseDTO> getPostsByUsername(String username) {
-        User user = userRepository.findByUsername(username)
+        User user = userCache.findByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String currentUser = auth != null ? auth.getName() : null;
@@ -115,9 +89,7 @@ public class PostService
             posts = postRepository.findAllPublicPostsByUsername(username);
         }
 
-        return posts.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(posts);
     }
 
     @Transactional
@@ -128,85 +100,108 @@ public class PostService
         postRepository.delete(post);
     }
 
-    @Transactional
-    public void updateAllPostScores()
+    public TrendingPostsPageDTO getTrendingPosts(int page, int size)
     {
-        List<Post> posts = postRepository.findAll();
-        for (Post post : posts)
-        {
-            double score = calculatePostScore(post);
-            post.setTrendScore(score);
-        }
-        postRepository.saveAll(posts);
+        // One extra row tells whether another page exists without a count query
+        List<Post> posts = postRepository.findPublicTrending(PageRequest.of(page - 1, size + 1));
+        return toTrendingPage(posts, size);
     }
 
-    private double calculatePostScore(Post post)
+    public TrendingPostsPageDTO getTrendingPostsAfter(String cursor, int size)
     {
-        // Get post age in hours
-        long minutesSinceCreation = ChronoUnit.MINUTES.between(post.getCreatedAt(), LocalDateTime.now());
-        int hoursSinceCreation = (int) Math.ceil(minutesSinceCreation / 60.0);
-
-        // Weight factors
-        double likeWeight = 1.0;
-        double commentWeight = 2.0; // Comments are weighted more than likes
-        double timeDecayFactor = 0.95; // Score decays over time
+        String decoded;
+        try
+        {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
 
-        // Calculate base score
-        double baseScore = (post.getLikeCount() * likeWeight) +
-                (post.getCommentCount() * commentWeight);
+        int separator = decoded.lastIndexOf(':');
+        if (separator < 0)
+        {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
 
-        // Apply time decay
-        double timeDecay = Math.pow(timeDecayFactor, hoursSinceCreation);
+        double trendScore;
+        long id;
+        try
+        {
+            trendScore = Double.parseDouble(decoded.substring(0, separator));
+            id = Long.parseLong(decoded.substring(separator + 1));
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
 
-        return baseScore * timeDecay;
+        List<Post> posts = postRepository.findPublicTrendingAfter(trendScore, id, PageRequest.of(0, size + 1));
+        return toTrendingPage(posts, size);
     }
 
-    public List<PostResponseDTO> getTrendingPosts(int page, int size)
+    private TrendingPostsPageDTO toTrendingPage(List<Post> posts, int size)
     {
-        List<Post> posts = postRepository.findAllPublicOrderByScoreDesc();
-        if (posts.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        int startIndex = (page - 1) * size;
-        if (startIndex >= posts.size()) {
-            return new ArrayList<>();
+        boolean hasMore = posts.size() > size;
+        List<Post> page = hasMore ? posts.subList(0, size) : posts;
+        String nextCursor = null;
+        if (hasMore)
+        {
+            Post last = page.get(page.size() - 1);
+            String position = last.getTrendScore() + ":" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
         }
-
-        return posts.stream()
-                .skip(startIndex)
-                .limit(size)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return new TrendingPostsPageDTO(
+                convertToDTOs(page),
+                nextCursor);
     }
 
     public List<PostResponseDTO> getCurrentUserPosts()
     {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        User user = userService.getCurrentUser();
 
-        return postRepository.findByUserOrderByCreatedAtDesc(user).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(postRepository.findByUserOrderByCreatedAtDesc(user));
     }
 
 
     private PostResponseDTO convertToDTO(Post post)
     {
-        User user = post.getUser();
-        InvestmentActivity activity = post.getInvestmentActivity();
-        boolean isLiked = false;
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-            String username = auth.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new UserNotFoundException("User not found"));
+        return convertToDTOs(List.of(post)).get(0);
+    }
+
+    /**
+     * Converts a page of posts, resolving the viewer once and their likes for the whole page with one query.
+     * Callers are expected to load posts with their author, activity and stock already fetched.
+     */
+    private List<PostResponseDTO> convertToDTOs(List<Post> posts)
+    {
+        if (posts.isEmpty())
+        {
+            return new ArrayList<>();
+        }
+
+        Set<Long> likedPostIds = Collections.emptySet();
+        Optional<User> viewer = userService.findCurrentUser();
+        if (viewer.isPresent())
+        {
+            User currentUser = viewer.get();
+            List<Long> postIds = posts.stream().map(Post::getId).collect(Collectors.toList());
+            likedPostIds = likeRepository.findLikedPostIds(currentUser.getId(), postIds);
+        }
 
-            isLiked = likeRepository.existsByUserIdAndPostId(currentUser.getId(), post.getId());
+        List<PostResponseDTO> dtos = new ArrayList<>(posts.size());
+        for (Post post : posts)
+        {
+            dtos.add(convertToDTO(post, likedPostIds.contains(post.getId())));
         }
+        return dtos;
+    }
+
+    private PostResponseDTO convertToDTO(Post post, boolean isLiked)
+    {
+        User user = post.getUser();
+        InvestmentActivity activity = post.getInvestmentActivity();
 
         UserDTO userDTO = UserDTO.builder()
                 .username(user.getUsername())
@@ -249,9 +244,7 @@ public class PostService
     {
         List<Post> posts = postRepository.findPostsByPortfolioId(portfolioId);
 
-        return posts.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(posts);
     }
 
     public long getTotalTrendingPostsCount() {
@@ -259,18 +252,8 @@ public class PostService
     }
 
     public long getTotalFollowedPostsCount() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-
-        List<FollowDTO> followedUsers = followService.getFollowing(username);
-        List<User> users = followedUsers.stream()
-                .map(followDTO -> userRepository.findByUsername(followDTO.getUsername())
-                        .orElseThrow(() -> new UserNotFoundException("User not found")))
-                .collect(Collectors.toList());
+        User user = userService.getCurrentUser();
 
-        return postRepository.findPublicPostsByUsersOrderByCreatedAtDesc(users).size();
+        return timelineRepository.countTimelinePosts(user.getId());
     }
 }
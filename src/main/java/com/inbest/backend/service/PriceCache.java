@@ -0,0 +1,192 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.model.Stock;
+import com.inbest.backend.repository.StockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Process-local view of the latest quote per ticker. Entries are immutable and replaced as a whole,
+ * so readers never lock and always see a consistent price/version pair. The ingestion job feeds it;
+ * tickers that were never loaded fall back to the database once.
+ */
+@Service
+@Slf4j
+public class PriceCache
+{
+    private final StockRepository stockRepository;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final List<PriceChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PriceCache(StockRepository stockRepository, MeterRegistry meterRegistry)
+    {
+        this.stockRepository = stockRepository;
+        this.hits = Counter.builder("price.cache.requests").tag("result", "hit")
+                .description("Price lookups served from memory")
+                .register(meterRegistry);
+        this.misses = Counter.builder("price.cache.requests").tag("result", "miss")
+                .description("Price lookups that had to load the stock row")
+                .register(meterRegistry);
+        Gauge.builder("price.cache.size", entries, Map::size)
+                .description("Tickers currently held in the price cache")
+                .register(meterRegistry);
+        Gauge.builder("price.cache.staleness", this, PriceCache::oldestAgeSeconds)
+                .description("Age in seconds of the least recently refreshed price")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp()
+    {
+        List<Stock> stocks = stockRepository.findAllStocks();
+        for (Stock stock : stocks)
+        {
+            if (stock.getCurrentPrice() != null)
+            {
+                entries.putIfAbsent(stock.getTickerSymbol(), new Entry(stock.getTickerSymbol(), stock.getCurrentPrice(), 0, quotedAt(stock)));
+            }
+        }
+        log.info("Price cache warmed with {} tickers", entries.size());
+    }
+
+    /**
+     * Latest cached quote, loading it from the stock table on a miss.
+     */
+    public Optional<Entry> get(String tickerSymbol)
+    {
+        Entry entry = entries.get(tickerSymbol);
+        if (entry != null)
+        {
+            hits.increment();
+            return Optional.of(entry);
+        }
+        misses.increment();
+        return stockRepository.findByTickerSymbol(tickerSymbol)
+                .filter(stock -> stock.getCurrentPrice() != null)
+                .map(this::seed);
+    }
+
+    /**
+     * Latest cached quote without falling back to the database, for callers that must not block on it.
+     */
+    public Optional<Entry> peek(String tickerSymbol)
+    {
+        return Optional.ofNullable(entries.get(tickerSymbol));
+    }
+
+    /**
+     * Latest price for a stock the caller already loaded. A miss is seeded from the entity itself,
+     * so this never goes to the database.
+     */
+    public BigDecimal priceOf(Stock stock)
+    {
+        Entry entry = entries.get(stock.getTickerSymbol());
+        if (entry != null)
+        {
+            hits.increment();
+        }
+        else
+        {
+            misses.increment();
+            entry = seed(stock);
+        }
+        return BigDecimal.valueOf(entry.getPrice());
+    }
+
+    /**
+     * Publishes a new price. Listeners are notified only when the value actually changed.
+     */
+    public Entry update(String tickerSymbol, double price)
+    {
+        Entry[] previous = new Entry[1];
+        Entry current = entries.compute(tickerSymbol, (ticker, existing) -> {
+            previous[0] = existing;
+            long version = existing == null ? 1 : existing.getVersion() + 1;
+            return new Entry(ticker, price, version, Instant.now());
+        });
+
+        if (previous[0] == null || Double.compare(previous[0].getPrice(), price) != 0)
+        {
+            for (PriceChangeListener listener : listeners)
+            {
+                try
+                {
+                    listener.onPriceChange(previous[0], current);
+                }
+                catch (RuntimeException e)
+                {
+                    log.warn("Price listener failed for {}", tickerSymbol, e);
+                }
+            }
+        }
+        return current;
+    }
+
+    public void subscribe(PriceChangeListener listener)
+    {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(PriceChangeListener listener)
+    {
+        listeners.remove(listener);
+    }
+
+    private Entry seed(Stock stock)
+    {
+        return entries.computeIfAbsent(stock.getTickerSymbol(),
+                ticker -> new Entry(ticker, stock.getCurrentPrice(), 0, quotedAt(stock)));
+    }
+
+    /**
+     * Time of the stored quote, so prices loaded from the database count as old as they are.
+     * Rows without one are treated as never refreshed.
+     */
+    private static Instant quotedAt(Stock stock)
+    {
+        return stock.getUpdatedAt() == null ? Instant.EPOCH : stock.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private double oldestAgeSeconds()
+    {
+        Instant now = Instant.now();
+        long oldest = 0;
+        for (Entry entry : entries.values())
+        {
+            oldest = Math.max(oldest, Duration.between(entry.getRefreshedAt(), now).toSeconds());
+        }
+        return oldest;
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
+    public static final class Entry
+    {
+        private final String tickerSymbol;
+        private final double price;
+        private final long version;
+        private final Instant refreshedAt;
+    }
+}
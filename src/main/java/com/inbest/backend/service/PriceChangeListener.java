@@ -0,0 +1,16 @@
+package com.inbest.backend.service;
+
+/**
+ * Callback for live price updates published by {@link PriceCache}.
+ */
+@FunctionalInterface
+public interface PriceChangeListener
+{
+    /**
+     * Called after the cached price of a ticker changed.
+     *
+     * @param previous entry that was replaced, or {@code null} for the first quote of a ticker
+     * @param current  entry that is now visible to readers
+     */
+    void onPriceChange(PriceCache.Entry previous, PriceCache.Entry current);
+}
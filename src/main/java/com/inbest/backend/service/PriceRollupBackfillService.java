@@ -0,0 +1,78 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.repository.PriceRollupJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Rolls existing {@code stockprice} history up into the OHLC tables, one calendar month per run, newest
+ * month first so recent charts are complete soonest. Progress needs no bookkeeping: every month from the
+ * oldest monthly bucket onwards is complete, so after a restart the job resumes from that month (redoing
+ * it once, which also completes a month that ingestion had only partially rolled up) and stops after the
+ * month of the oldest tick.
+ */
+@Service
+@Slf4j
+public class PriceRollupBackfillService
+{
+    private final PriceRollupJdbcRepository priceRollupJdbcRepository;
+
+    // Only touched by the scheduler thread
+    private LocalDateTime nextMonth;
+    private LocalDateTime oldestMonth;
+    private boolean complete;
+
+    public PriceRollupBackfillService(PriceRollupJdbcRepository priceRollupJdbcRepository)
+    {
+        this.priceRollupJdbcRepository = priceRollupJdbcRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${price-rollup.backfill-interval-ms:1000}", initialDelayString = "${price-rollup.backfill-initial-delay-ms:30000}")
+    public void backfillNextMonth()
+    {
+        if (complete)
+        {
+            return;
+        }
+        if (nextMonth == null)
+        {
+            Optional<LocalDateTime> oldestTick = priceRollupJdbcRepository.findOldestTickDate();
+            if (oldestTick.isEmpty())
+            {
+                complete = true;
+                return;
+            }
+            oldestMonth = startOfMonth(oldestTick.get());
+            nextMonth = priceRollupJdbcRepository.findOldestMonthlyBucket()
+                    .map(PriceRollupBackfillService::startOfMonth)
+                    .orElse(startOfMonth(LocalDateTime.now()));
+            log.info("Price rollup backfill running from {} back to {}", nextMonth, oldestMonth);
+        }
+
+        if (nextMonth.isBefore(oldestMonth))
+        {
+            complete = true;
+            log.info("Price rollup backfill complete");
+            return;
+        }
+
+        int buckets = priceRollupJdbcRepository.rebuild(nextMonth, nextMonth.plusMonths(1));
+        log.debug("Rolled up {} ticker months for {}", buckets, nextMonth);
+        nextMonth = nextMonth.minusMonths(1);
+    }
+
+    public boolean isComplete()
+    {
+        return complete;
+    }
+
+    private static LocalDateTime startOfMonth(LocalDateTime date)
+    {
+        return date.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+    }
+}
@@ -0,0 +1,125 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.event.ReadModelRefreshedEvent;
+import com.inbest.backend.repository.ReadModelJdbcRepository;
+import com.inbest.backend.repository.ReadModelJdbcRepository.ReadModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the return read models in line with the pipeline views they snapshot. Every run refreshes each
+ * snapshot whose view exists; readers ask {@link #isCurrent(ReadModel)} and fall back to the view while a
+ * snapshot has not been refreshed within {@code read-model.max-staleness-ms}, e.g. right after startup or
+ * when refreshes keep failing.
+ */
+@Service
+@Slf4j
+public class ReadModelRefresher
+{
+    private final ReadModelJdbcRepository readModelJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long maxStalenessMs;
+    private final Map<ReadModel, State> states = new EnumMap<>(ReadModel.class);
+
+    public ReadModelRefresher(ReadModelJdbcRepository readModelJdbcRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${read-model.max-staleness-ms:900000}") long maxStalenessMs)
+    {
+        this.readModelJdbcRepository = readModelJdbcRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxStalenessMs = maxStalenessMs;
+        for (ReadModel model : ReadModel.values())
+        {
+            State state = new State(
+                    Timer.builder("read.model.refresh").tag("read_model", model.getSnapshot())
+                            .description("Time taken to refresh a read model from its view")
+                            .register(meterRegistry),
+                    Counter.builder("read.model.refresh.failures").tag("read_model", model.getSnapshot())
+                            .description("Read model refreshes that failed")
+                            .register(meterRegistry));
+            Gauge.builder("read.model.staleness", state, State::ageSeconds).tag("read_model", model.getSnapshot())
+                    .description("Age in seconds of the last successful refresh of a read model")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            states.put(model, state);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${read-model.refresh-interval-ms:300000}", initialDelayString = "${read-model.refresh-initial-delay-ms:10000}")
+    public void refreshAll()
+    {
+        for (ReadModel model : ReadModel.values())
+        {
+            refresh(model);
+        }
+    }
+
+    /**
+     * Whether the snapshot was refreshed recently enough to be read instead of its view.
+     */
+    public boolean isCurrent(ReadModel model)
+    {
+        long refreshedAt = states.get(model).refreshedAt;
+        return refreshedAt != 0 && System.currentTimeMillis() - refreshedAt <= maxStalenessMs;
+    }
+
+    private void refresh(ReadModel model)
+    {
+        State state = states.get(model);
+        try
+        {
+            if (!readModelJdbcRepository.viewExists(model))
+            {
+                log.debug("View {} does not exist, {} is not refreshed", model.getView(), model.getSnapshot());
+                return;
+            }
+            long start = System.nanoTime();
+            long changed = readModelJdbcRepository.refresh(model);
+            state.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            state.refreshedAt = System.currentTimeMillis();
+            if (changed > 0)
+            {
+                log.debug("Refreshed read model {}, {} rows changed", model.getSnapshot(), changed);
+                eventPublisher.publishEvent(new ReadModelRefreshedEvent(model));
+            }
+        }
+        catch (DataAccessException e)
+        {
+            state.failures.increment();
+            log.warn("Refreshing read model {} failed", model.getSnapshot(), e);
+        }
+    }
+
+    private static final class State
+    {
+        private final Timer timer;
+        private final Counter failures;
+        // Epoch millis of the last successful refresh, 0 before the first one
+        private volatile long refreshedAt;
+
+        private State(Timer timer, Counter failures)
+        {
+            this.timer = timer;
+            this.failures = failures;
+        }
+
+        private double ageSeconds()
+        {
+            long refreshed = refreshedAt;
+            return refreshed == 0 ? Double.NaN : (System.currentTimeMillis() - refreshed) / 1000.0;
+        }
+    }
+}
@@ -24,6 +24,12 @@ public class ResetPasswordService
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
     public void resetPassword(String token, ResetPasswordRequest password)
     {
         Token resetToken = tokenService.validateToken(token, TokenType.PASSWORD_RESET)
@@ -46,6 +52,8 @@ public class ResetPasswordService
         user.setPasswordHash(passwordEncoder.encode(password.getPassword()));
 
         userRepository.save(user);
+        userCache.invalidate(user);
+        tokenRevocationRegistry.revokeAll(user.getId());
 
         tokenService.invalidateToken(token);
     }
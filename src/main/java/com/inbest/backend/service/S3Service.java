@@ -48,6 +48,9 @@ public class S3Service implements FileService
     @Autowired
     AuthenticationService authenticationService;
 
+    @Autowired
+    UserCache userCache;
+
     @PostConstruct
     private void initialize()
     {
@@ -118,6 +121,7 @@ public class S3Service implements FileService
                     .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
             user.setImageUrl(imageUrl);
             userRepository.save(user);
+            userCache.invalidate(user);
 
             return new FileUploadResponseDTO("success", "File uploaded successfully", imageUrl, LocalDateTime.now());
         }
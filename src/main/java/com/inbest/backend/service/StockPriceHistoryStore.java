@@ -0,0 +1,466 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.model.TimeSeries;
+import com.inbest.backend.repository.TimeSeriesJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Columnar in-memory copy of the recent {@code stockprice} history. Every ticker keeps its points in
+ * fixed-size chunks of sorted {@code long[]} epoch-millisecond times and {@code double[]} prices, so as-of
+ * lookups are two binary searches and daily or monthly rollups are one sequential pass. The store is loaded
+ * at startup for the last {@code price-history.retention-days} days, plus each ticker's last earlier price
+ * so lookups at the horizon stay exact, and the ingestion job appends every new quote.
+ * Callers must fall back to the database for instants before {@link #getHorizon()} or while not loaded.
+ */
+@Service
+@Slf4j
+public class StockPriceHistoryStore
+{
+    private static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    private final TimeSeriesJdbcRepository timeSeriesJdbcRepository;
+    private final int retentionDays;
+    private final int chunkSize;
+    private final Map<String, TickerHistory> histories = new ConcurrentHashMap<>();
+    private volatile long horizonMillis = Long.MAX_VALUE;
+
+    public StockPriceHistoryStore(TimeSeriesJdbcRepository timeSeriesJdbcRepository,
+                                  @Value("${price-history.retention-days:400}") int retentionDays)
+    {
+        this(timeSeriesJdbcRepository, retentionDays, DEFAULT_CHUNK_SIZE);
+    }
+
+    StockPriceHistoryStore(TimeSeriesJdbcRepository timeSeriesJdbcRepository, int retentionDays, int chunkSize)
+    {
+        this.timeSeriesJdbcRepository = timeSeriesJdbcRepository;
+        this.retentionDays = retentionDays;
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load()
+    {
+        LocalDateTime horizon = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).minusDays(retentionDays);
+        Map<String, TickerHistory> loaded = new HashMap<>();
+        long[] points = new long[1];
+        timeSeriesJdbcRepository.forEachPriceSince(horizon, (tickerSymbol, time, price) -> {
+            loaded.computeIfAbsent(tickerSymbol, ticker -> new TickerHistory(chunkSize)).append(time, price);
+            points[0]++;
+        });
+
+        // Quotes ingested while loading are kept; the loaded history goes in front of them
+        for (Map.Entry<String, TickerHistory> entry : loaded.entrySet())
+        {
+            histories.merge(entry.getKey(), entry.getValue(), (current, history) -> history.mergeInto(current));
+        }
+        horizonMillis = millis(horizon);
+        log.info("Price history loaded: {} points for {} tickers since {}", points[0], loaded.size(), horizon);
+    }
+
+    /**
+     * Drops whole chunks that fell behind the retention horizon, keeping each ticker's last earlier price.
+     */
+    @Scheduled(fixedDelayString = "${price-history.trim-interval-ms:86400000}", initialDelayString = "${price-history.trim-interval-ms:86400000}")
+    public void trim()
+    {
+        if (!isLoaded())
+        {
+            return;
+        }
+        long horizon = millis(LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).minusDays(retentionDays));
+        for (TickerHistory history : histories.values())
+        {
+            history.dropBefore(horizon);
+        }
+        horizonMillis = horizon;
+    }
+
+    /**
+     * Records an ingested quote. Points already held for the same instant are left as they are.
+     */
+    public void append(String tickerSymbol, LocalDateTime date, double price)
+    {
+        histories.computeIfAbsent(tickerSymbol, ticker -> new TickerHistory(chunkSize)).append(millis(date), price);
+    }
+
+    public boolean isLoaded()
+    {
+        return horizonMillis != Long.MAX_VALUE;
+    }
+
+    /**
+     * Earliest instant the store answers for, or {@code null} before the initial load.
+     */
+    public LocalDateTime getHorizon()
+    {
+        return isLoaded() ? new Timestamp(horizonMillis).toLocalDateTime() : null;
+    }
+
+    /**
+     * Whether lookups from the given instant on can be served from memory.
+     */
+    public boolean covers(LocalDateTime from)
+    {
+        return isLoaded() && millis(from) >= horizonMillis;
+    }
+
+    /**
+     * Last price strictly before the instant, or {@code NaN} when there is none.
+     */
+    public double priceBefore(String tickerSymbol, LocalDateTime date)
+    {
+        TickerHistory history = histories.get(tickerSymbol);
+        return history != null ? history.before(millis(date)) : Double.NaN;
+    }
+
+    /**
+     * First price strictly after the instant, or {@code NaN} when there is none.
+     */
+    public double priceAfter(String tickerSymbol, LocalDateTime date)
+    {
+        TickerHistory history = histories.get(tickerSymbol);
+        return history != null ? history.after(millis(date)) : Double.NaN;
+    }
+
+    /**
+     * Prices in [from, to), oldest first.
+     */
+    public TimeSeries prices(String tickerSymbol, LocalDateTime from, LocalDateTime to)
+    {
+        TimeSeries series = new TimeSeries();
+        TickerHistory history = histories.get(tickerSymbol);
+        if (history != null)
+        {
+            history.scan(millis(from), millis(to), series::add);
+        }
+        return series;
+    }
+
+    /**
+     * Percentage change from the first to the last price of every bucket in [from, to) that has prices,
+     * keyed by the bucket start; buckets opening at zero are skipped.
+     */
+    public TimeSeries rollupReturns(String tickerSymbol, LocalDateTime from, LocalDateTime to, Resolution resolution)
+    {
+        TimeSeries returns = new TimeSeries();
+        TickerHistory history = histories.get(tickerSymbol);
+        if (history == null)
+        {
+            return returns;
+        }
+
+        Bucket bucket = new Bucket(returns, resolution);
+        history.scan(millis(from), millis(to), bucket::accept);
+        bucket.flush();
+        return returns;
+    }
+
+    public int tickerCount()
+    {
+        return histories.size();
+    }
+
+    public long pointCount()
+    {
+        long points = 0;
+        for (TickerHistory history : histories.values())
+        {
+            points += history.size();
+        }
+        return points;
+    }
+
+    private static long millis(LocalDateTime date)
+    {
+        return Timestamp.valueOf(date).getTime();
+    }
+
+    /**
+     * Rollup bucket widths, aligned to local calendar boundaries like {@code date_trunc}.
+     */
+    public enum Resolution
+    {
+        HOUR,
+        DAY,
+        MONTH;
+
+        LocalDateTime truncate(LocalDateTime date)
+        {
+            switch (this)
+            {
+                case HOUR:
+                    return date.truncatedTo(ChronoUnit.HOURS);
+                case DAY:
+                    return date.truncatedTo(ChronoUnit.DAYS);
+                default:
+                    return date.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            }
+        }
+
+        LocalDateTime next(LocalDateTime bucketStart)
+        {
+            switch (this)
+            {
+                case HOUR:
+                    return bucketStart.plusHours(1);
+                case DAY:
+                    return bucketStart.plusDays(1);
+                default:
+                    return bucketStart.plusMonths(1);
+            }
+        }
+    }
+
+    private interface PointConsumer
+    {
+        void accept(long time, double price);
+    }
+
+    // Folds a sorted scan into per-bucket first/last prices; bucket bounds are only recomputed on crossing
+    private static final class Bucket
+    {
+        private final TimeSeries returns;
+        private final Resolution resolution;
+        private long start;
+        private long end = Long.MIN_VALUE;
+        private double first;
+        private double last;
+
+        private Bucket(TimeSeries returns, Resolution resolution)
+        {
+            this.returns = returns;
+            this.resolution = resolution;
+        }
+
+        private void accept(long time, double price)
+        {
+            if (time >= end)
+            {
+                flush();
+                LocalDateTime bucketStart = resolution.truncate(new Timestamp(time).toLocalDateTime());
+                start = millis(bucketStart);
+                end = millis(resolution.next(bucketStart));
+                first = price;
+            }
+            last = price;
+        }
+
+        private void flush()
+        {
+            if (end != Long.MIN_VALUE && first != 0)
+            {
+                returns.add(start, (last - first) / first * 100);
+            }
+            end = Long.MIN_VALUE;
+        }
+    }
+
+    private static final class Chunk
+    {
+        private long[] times;
+        private double[] prices;
+        private int size;
+
+        private Chunk(int capacity)
+        {
+            times = new long[capacity];
+            prices = new double[capacity];
+        }
+
+        private long firstTime()
+        {
+            return times[0];
+        }
+
+        private long lastTime()
+        {
+            return times[size - 1];
+        }
+
+        // Index of the first time not below the given one
+        private int lowerBound(long time)
+        {
+            int position = Arrays.binarySearch(times, 0, size, time);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        // Index of the first time above the given one
+        private int upperBound(long time)
+        {
+            int position = Arrays.binarySearch(times, 0, size, time);
+            return position >= 0 ? position + 1 : -position - 1;
+        }
+
+        private void insert(int index, long time, double price)
+        {
+            if (size == times.length)
+            {
+                times = Arrays.copyOf(times, size + size / 2 + 1);
+                prices = Arrays.copyOf(prices, times.length);
+            }
+            System.arraycopy(times, index, times, index + 1, size - index);
+            System.arraycopy(prices, index, prices, index + 1, size - index);
+            times[index] = time;
+            prices[index] = price;
+            size++;
+        }
+    }
+
+    // One ticker's points; readers and the ingestion writer synchronize on the instance
+    private static final class TickerHistory
+    {
+        private final int chunkSize;
+        private final List<Chunk> chunks = new ArrayList<>();
+        private int size;
+
+        private TickerHistory(int chunkSize)
+        {
+            this.chunkSize = chunkSize;
+        }
+
+        private synchronized int size()
+        {
+            return size;
+        }
+
+        private synchronized void append(long time, double price)
+        {
+            Chunk last = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+            if (last == null || time > last.lastTime())
+            {
+                if (last == null || last.size >= chunkSize)
+                {
+                    last = new Chunk(chunkSize);
+                    chunks.add(last);
+                }
+                last.insert(last.size, time, price);
+                size++;
+                return;
+            }
+
+            // Late point: insert in place unless the instant is already held
+            Chunk chunk = chunks.get(Math.max(chunkAtOrBefore(time), 0));
+            int position = Arrays.binarySearch(chunk.times, 0, chunk.size, time);
+            if (position < 0)
+            {
+                chunk.insert(-position - 1, time, price);
+                size++;
+            }
+        }
+
+        private synchronized double before(long time)
+        {
+            int index = chunkBefore(time);
+            if (index < 0)
+            {
+                return Double.NaN;
+            }
+            Chunk chunk = chunks.get(index);
+            return chunk.prices[chunk.lowerBound(time) - 1];
+        }
+
+        private synchronized double after(long time)
+        {
+            for (int index = Math.max(chunkAtOrBefore(time), 0); index < chunks.size(); index++)
+            {
+                Chunk chunk = chunks.get(index);
+                int position = chunk.upperBound(time);
+                if (position < chunk.size)
+                {
+                    return chunk.prices[position];
+                }
+            }
+            return Double.NaN;
+        }
+
+        private synchronized void scan(long from, long to, PointConsumer consumer)
+        {
+            for (int index = Math.max(chunkAtOrBefore(from), 0); index < chunks.size(); index++)
+            {
+                Chunk chunk = chunks.get(index);
+                for (int i = chunk.lowerBound(from); i < chunk.size; i++)
+                {
+                    if (chunk.times[i] >= to)
+                    {
+                        return;
+                    }
+                    consumer.accept(chunk.times[i], chunk.prices[i]);
+                }
+            }
+        }
+
+        // Keeps the chunk holding the last point before the horizon so lookups there stay exact
+        private synchronized void dropBefore(long horizon)
+        {
+            int keepFrom = Math.max(chunkBefore(horizon), 0);
+            for (int i = 0; i < keepFrom; i++)
+            {
+                size -= chunks.get(i).size;
+            }
+            chunks.subList(0, keepFrom).clear();
+        }
+
+        // Puts this history's points in front of the newer ones already held by current
+        private TickerHistory mergeInto(TickerHistory current)
+        {
+            synchronized (current)
+            {
+                List<Chunk> newer = new ArrayList<>(current.chunks);
+                current.chunks.clear();
+                current.chunks.addAll(chunks);
+                current.size = size;
+                for (Chunk chunk : newer)
+                {
+                    for (int i = 0; i < chunk.size; i++)
+                    {
+                        current.append(chunk.times[i], chunk.prices[i]);
+                    }
+                }
+            }
+            return current;
+        }
+
+        // Last chunk starting at or before the time, or -1
+        private int chunkAtOrBefore(long time)
+        {
+            int low = 0;
+            int high = chunks.size() - 1;
+            int found = -1;
+            while (low <= high)
+            {
+                int middle = (low + high) >>> 1;
+                if (chunks.get(middle).firstTime() <= time)
+                {
+                    found = middle;
+                    low = middle + 1;
+                }
+                else
+                {
+                    high = middle - 1;
+                }
+            }
+            return found;
+        }
+
+        // Last chunk starting strictly before the time, or -1
+        private int chunkBefore(long time)
+        {
+            return chunkAtOrBefore(time - 1);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.repository.StockPriceJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Retention for raw {@code stockprice} ticks. TimescaleDB creates the monthly chunks as ticks arrive and
+ * compresses them after a month; this job drops whole chunks older than
+ * {@code price-history.raw-retention-days}, once the rollup backfill has made sure their history lives
+ * on in the hourly, daily and monthly OHLC tables.
+ */
+@Service
+@Slf4j
+public class StockPriceRetentionService
+{
+    private final StockPriceJdbcRepository stockPriceJdbcRepository;
+    private final PriceRollupBackfillService priceRollupBackfillService;
+    private final int rawRetentionDays;
+
+    public StockPriceRetentionService(StockPriceJdbcRepository stockPriceJdbcRepository,
+                                      PriceRollupBackfillService priceRollupBackfillService,
+                                      @Value("${price-history.raw-retention-days:730}") int rawRetentionDays)
+    {
+        this.stockPriceJdbcRepository = stockPriceJdbcRepository;
+        this.priceRollupBackfillService = priceRollupBackfillService;
+        this.rawRetentionDays = rawRetentionDays;
+    }
+
+    @Scheduled(fixedDelayString = "${price-history.retention-interval-ms:86400000}", initialDelayString = "${price-history.retention-interval-ms:86400000}")
+    public void dropExpiredTicks()
+    {
+        if (!priceRollupBackfillService.isComplete())
+        {
+            log.info("Skipping stockprice retention until the rollup backfill has completed");
+            return;
+        }
+
+        // Month-aligned so the cutoff matches chunk boundaries
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(rawRetentionDays).truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        int dropped = stockPriceJdbcRepository.dropRawPricesBefore(cutoff);
+        if (dropped > 0)
+        {
+            log.info("Dropped {} stockprice chunks older than {}", dropped, cutoff);
+        }
+    }
+}
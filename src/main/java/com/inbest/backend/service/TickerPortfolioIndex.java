@@ -0,0 +1,131 @@
+package com.inbest.backend.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from ticker to the ids of the portfolios holding it. Each ticker maps to a sorted,
+ * duplicate-free {@code int[]} that is replaced on every change and never mutated, so lookups are
+ * lock-free and return a stable view; writers copy the array, which is cheap for the typical posting size.
+ * Ids are stored unboxed at four bytes each instead of a boxed {@code Set<Integer>} entry per holding.
+ */
+public class TickerPortfolioIndex
+{
+    private static final int[] EMPTY = new int[0];
+
+    private volatile Map<String, int[]> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Sorted portfolio ids holding the ticker. The returned array must not be modified.
+     */
+    public int[] portfoliosHolding(String tickerSymbol)
+    {
+        int[] ids = postings.get(tickerSymbol);
+        return ids != null ? ids : EMPTY;
+    }
+
+    public void add(String tickerSymbol, int portfolioId)
+    {
+        postings.compute(tickerSymbol, (ticker, ids) -> {
+            if (ids == null)
+            {
+                return new int[]{portfolioId};
+            }
+            int position = Arrays.binarySearch(ids, portfolioId);
+            if (position >= 0)
+            {
+                return ids;
+            }
+            int insertAt = -position - 1;
+            int[] copy = new int[ids.length + 1];
+            System.arraycopy(ids, 0, copy, 0, insertAt);
+            copy[insertAt] = portfolioId;
+            System.arraycopy(ids, insertAt, copy, insertAt + 1, ids.length - insertAt);
+            return copy;
+        });
+    }
+
+    public void remove(String tickerSymbol, int portfolioId)
+    {
+        postings.computeIfPresent(tickerSymbol, (ticker, ids) -> {
+            int position = Arrays.binarySearch(ids, portfolioId);
+            if (position < 0)
+            {
+                return ids;
+            }
+            if (ids.length == 1)
+            {
+                return null;
+            }
+            int[] copy = new int[ids.length - 1];
+            System.arraycopy(ids, 0, copy, 0, position);
+            System.arraycopy(ids, position + 1, copy, position, ids.length - position - 1);
+            return copy;
+        });
+    }
+
+    /**
+     * Replaces the whole index from (ticker, portfolioId) pairs given as two parallel arrays.
+     */
+    public void replaceAll(String[] tickerSymbols, int[] portfolioIds)
+    {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String tickerSymbol : tickerSymbols)
+        {
+            counts.merge(tickerSymbol, 1, Integer::sum);
+        }
+
+        Map<String, int[]> buffers = new HashMap<>(counts.size() * 2);
+        Map<String, Integer> filled = new HashMap<>(counts.size() * 2);
+        for (int i = 0; i < tickerSymbols.length; i++)
+        {
+            String tickerSymbol = tickerSymbols[i];
+            int[] buffer = buffers.computeIfAbsent(tickerSymbol, ticker -> new int[counts.get(ticker)]);
+            int next = filled.merge(tickerSymbol, 1, Integer::sum);
+            buffer[next - 1] = portfolioIds[i];
+        }
+
+        Map<String, int[]> rebuilt = new ConcurrentHashMap<>(buffers.size() * 2);
+        for (Map.Entry<String, int[]> entry : buffers.entrySet())
+        {
+            int[] ids = entry.getValue();
+            Arrays.sort(ids);
+            rebuilt.put(entry.getKey(), dedupe(ids));
+        }
+        postings = rebuilt;
+    }
+
+    public int tickerCount()
+    {
+        return postings.size();
+    }
+
+    /**
+     * Approximate retained heap in bytes, assuming compressed references: the id arrays plus one map entry per ticker.
+     */
+    public long estimatedFootprintBytes()
+    {
+        long bytes = 0;
+        for (int[] ids : postings.values())
+        {
+            // 16-byte array header, 4 bytes per id, padded to 8 bytes; 32 bytes per map node
+            bytes += ((16 + 4L * ids.length + 7) & ~7L) + 32;
+        }
+        return bytes;
+    }
+
+    private static int[] dedupe(int[] sorted)
+    {
+        int length = 0;
+        for (int i = 0; i < sorted.length; i++)
+        {
+            if (i == 0 || sorted[i] != sorted[i - 1])
+            {
+                sorted[length++] = sorted[i];
+            }
+        }
+        return length == sorted.length ? sorted : Arrays.copyOf(sorted, length);
+    }
+}
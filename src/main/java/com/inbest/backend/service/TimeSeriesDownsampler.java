@@ -0,0 +1,104 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.model.TimeSeries;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling for chart series. The first and last points are always kept;
+ * every bucket in between keeps the point forming the largest triangle with the previously kept point and
+ * the average of the next bucket, so peaks and troughs survive where even spacing would skip them.
+ */
+public final class TimeSeriesDownsampler
+{
+    /**
+     * Upper bound on the points a client may request for one series.
+     */
+    public static final int MAX_POINTS = 1000;
+
+    private TimeSeriesDownsampler()
+    {
+    }
+
+    public static TimeSeries downsample(TimeSeries series, int points)
+    {
+        if (points >= series.size())
+        {
+            return series;
+        }
+        return series.select(largestTriangleThreeBuckets(series.timeColumn(), series.valueColumn(), series.size(), points));
+    }
+
+    /**
+     * Ascending indices of the points to keep out of the first {@code length} entries of the columns.
+     *
+     * @param points requested number of points; all indices are returned when it is not below {@code length}
+     */
+    public static int[] largestTriangleThreeBuckets(long[] x, double[] y, int length, int points)
+    {
+        if (points >= length)
+        {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++)
+            {
+                all[i] = i;
+            }
+            return all;
+        }
+        if (points <= 0)
+        {
+            return new int[0];
+        }
+        if (points == 1)
+        {
+            return new int[]{0};
+        }
+        if (points == 2)
+        {
+            return new int[]{0, length - 1};
+        }
+
+        int[] selected = new int[points];
+        // Buckets cover the points between the fixed first and last ones
+        double bucketSize = (double) (length - 2) / (points - 2);
+        // Times are taken relative to the first point to keep the products well inside double precision
+        long origin = x[0];
+        int anchor = 0;
+
+        for (int bucket = 0; bucket < points - 2; bucket++)
+        {
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, length);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++)
+            {
+                averageX += x[i] - origin;
+                averageY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+            double anchorX = x[anchor] - origin;
+            double anchorY = y[anchor];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++)
+            {
+                // Twice the triangle area; the factor does not change the arg max
+                double area = Math.abs((anchorX - averageX) * (y[i] - anchorY) - (anchorX - (x[i] - origin)) * (averageY - anchorY));
+                if (area > maxArea)
+                {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[bucket + 1] = chosen;
+            anchor = chosen;
+        }
+
+        selected[points - 1] = length - 1;
+        return selected;
+    }
+}
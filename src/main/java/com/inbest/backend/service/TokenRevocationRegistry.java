@@ -0,0 +1,47 @@
+package com.inbest.backend.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory deny-list for stateless tokens. Instead of remembering every token it keeps one cut-off per user:
+ * tokens issued at or before it are rejected. Entries are dropped once every token they could match has expired.
+ */
+@Service
+public class TokenRevocationRegistry
+{
+    private final Map<Integer, Long> revokedUpToMillis = new ConcurrentHashMap<>();
+
+    /**
+     * Rejects every token issued to the user up to now, e.g. after a password change.
+     */
+    public void revokeAll(int userId)
+    {
+        revokedUpToMillis.put(userId, System.currentTimeMillis());
+    }
+
+    /**
+     * @param issuedAtMillis issue time of the token; tokens with second precision pass it rounded down,
+     *                       so one issued in the second of the revocation is rejected as well
+     */
+    public boolean isRevoked(int userId, long issuedAtMillis)
+    {
+        Long cutOff = revokedUpToMillis.get(userId);
+        return cutOff != null && issuedAtMillis <= cutOff;
+    }
+
+    public int size()
+    {
+        return revokedUpToMillis.size();
+    }
+
+    @Scheduled(fixedDelay = 60 * 60 * 1000)
+    public void pruneExpired()
+    {
+        long oldestLiveToken = System.currentTimeMillis() - JwtService.TOKEN_VALIDITY_MS;
+        revokedUpToMillis.values().removeIf(cutOff -> cutOff < oldestLiveToken);
+    }
+}
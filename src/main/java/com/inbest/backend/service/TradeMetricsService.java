@@ -1,5 +1,6 @@
 package com.inbest.backend.service;
 
+import com.inbest.backend.cache.CacheNames;
 import com.inbest.backend.model.Portfolio;
 import com.inbest.backend.model.TradeMetrics;
 import com.inbest.backend.model.User;
@@ -7,6 +8,7 @@ import com.inbest.backend.repository.PortfolioRepository;
 import com.inbest.backend.repository.TradeMetricsRepository;
 import com.inbest.backend.model.response.TradeMetricsResponseDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -47,6 +49,7 @@ public class TradeMetricsService {
         );
     }
 
+    @Cacheable(cacheNames = CacheNames.PORTFOLIO_TRADES, key = "#portfolioId + ':best'")
     public TradeMetricsResponseDTO getPortfolioBestTrade(Integer portfolioId) {
         TradeMetrics bestTrade = tradeMetricsRepository.findTopByPortfolioIdAndIsBestTradeTrue(portfolioId);
         if (bestTrade == null) {
@@ -55,6 +58,7 @@ public class TradeMetricsService {
         return toDTO(bestTrade);
     }
 
+    @Cacheable(cacheNames = CacheNames.PORTFOLIO_TRADES, key = "#portfolioId + ':worst'")
     public TradeMetricsResponseDTO getPortfolioWorstTrade(Integer portfolioId) {
         TradeMetrics worstTrade = tradeMetricsRepository.findTopByPortfolioIdAndIsWorstTradeTrue(portfolioId);
         if (worstTrade == null) {
@@ -0,0 +1,83 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.cache.BoundedTtlCache;
+import com.inbest.backend.model.User;
+import com.inbest.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived, size-bounded cache of users by username and id. Authentication and the services that resolve
+ * other users by name read through it; anything that changes a user row must call {@link #invalidate(User)}.
+ * Cached users are detached, so callers that modify a user load it from the repository instead.
+ */
+@Service
+public class UserCache
+{
+    private final UserRepository userRepository;
+    private final BoundedTtlCache byUsername;
+    // Ids resolve to a username and then through byUsername, so a user is held once
+    private final BoundedTtlCache usernameById;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${user-cache.ttl-ms:30000}") long ttlMillis,
+                     @Value("${user-cache.max-size:10000}") int maxSize)
+    {
+        this.userRepository = userRepository;
+        this.byUsername = new BoundedTtlCache("usersByUsername", Duration.ofMillis(ttlMillis), maxSize);
+        this.usernameById = new BoundedTtlCache("usernamesById", Duration.ofMillis(ttlMillis), maxSize);
+    }
+
+    public Optional<User> findByUsername(String username)
+    {
+        User cached = byUsername.get(username, User.class);
+        if (cached != null)
+        {
+            return Optional.of(cached);
+        }
+        Optional<User> loaded = userRepository.findByUsername(username);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public Optional<User> findById(Integer id)
+    {
+        String username = usernameById.get(id, String.class);
+        User cached = username != null ? byUsername.get(username, User.class) : null;
+        if (cached != null)
+        {
+            return Optional.of(cached);
+        }
+        Optional<User> loaded = userRepository.findById(id.longValue());
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    /**
+     * Drops the user so the next lookup reads the current row, e.g. after a profile or password change.
+     */
+    public void invalidate(User user)
+    {
+        byUsername.evict(user.getUsername());
+        String username = usernameById.get(user.getId(), String.class);
+        usernameById.evict(user.getId());
+        if (username != null)
+        {
+            byUsername.evict(username);
+        }
+    }
+
+    public int size()
+    {
+        return (int) byUsername.size();
+    }
+
+    private void put(User user)
+    {
+        byUsername.put(user.getUsername(), user);
+        usernameById.put(user.getId(), user.getUsername());
+    }
+}
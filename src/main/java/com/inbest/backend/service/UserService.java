@@ -2,16 +2,19 @@ package com.inbest.backend.service;
 
 import com.inbest.backend.dto.UserUpdateDTO;
 import com.inbest.backend.exception.UserNotFoundException;
+import com.inbest.backend.model.AuthenticatedUser;
 import com.inbest.backend.model.User;
 import com.inbest.backend.repository.UserRepository;
 import com.inbest.backend.dto.ChangePasswordDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
@@ -19,10 +22,12 @@ import java.util.Optional;
 public class UserService {
     private final UserRepository repository;
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
 
     public String getPublicUserInfo(String username) {
-        Optional<User> user = repository.findByUsername(username);
+        Optional<User> user = userCache.findByUsername(username);
         return user.map(value -> value.getName() + " " + value.getSurname()).orElse("John Doe");
     }
 
@@ -37,6 +42,7 @@ public class UserService {
         user.setSurname(userUpdateDTO.getSurname());
 
         repository.save(user);
+        userCache.invalidate(user);
     }
 
     public void changePassword(ChangePasswordDTO request) {
@@ -65,18 +71,48 @@ public class UserService {
         // Update password
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
         repository.save(user);
+        userCache.invalidate(user);
+        tokenRevocationRegistry.revokeAll(user.getId());
     }
 
-    public List<User> searchUsers(String searchTerm) {
-        return repository.searchUsers(searchTerm);
+    public List<User> searchUsers(String searchTerm, int page, int size) {
+        String term = searchTerm == null ? "" : searchTerm.trim().toLowerCase(Locale.ROOT);
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        // The term is matched with LIKE, so its own wildcards must be literal
+        String pattern = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        // A page past any possible result would overflow the int offset, so it is simply empty
+        long offset = (long) (page - 1) * size;
+        if (offset > Integer.MAX_VALUE) {
+            return List.of();
+        }
+        return repository.searchUsers(term, pattern, size, (int) offset);
     }
     public User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-        return repository.findByUsername(username)
+        return findCurrentUser()
                 .orElseThrow(() -> new UserNotFoundException("User not found or access denied."));
     }
 
+    /**
+     * The authenticated user, or empty for anonymous requests. JWT requests carry only the signed claims,
+     * so the user is resolved by id through the user cache.
+     * The returned user is detached and must not be modified.
+     */
+    public Optional<User> findCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return Optional.empty();
+        }
+        if (auth.getPrincipal() instanceof AuthenticatedUser principal) {
+            return userCache.findById(principal.getUserId());
+        }
+        if (auth.getPrincipal() instanceof User user) {
+            return Optional.of(user);
+        }
+        return userCache.findByUsername(auth.getName());
+    }
+
     public Integer getCurrentUserId() {
         return getCurrentUser().getId();
     }
@@ -0,0 +1,269 @@
+package com.inbest.backend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Token-streaming reader for Yahoo {@code /v8/finance/chart} payloads. Only the timestamp and close
+ * arrays of the first result are materialised, straight into primitive buffers; every other field
+ * (meta, open/high/low, volume, adjclose, ...) is skipped without building objects for it.
+ */
+public class YahooChartParser
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final JsonFactory jsonFactory;
+
+    public YahooChartParser()
+    {
+        this(new JsonFactory());
+    }
+
+    public YahooChartParser(JsonFactory jsonFactory)
+    {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public ChartSeries parse(InputStream in) throws IOException
+    {
+        try (JsonParser parser = jsonFactory.createParser(in))
+        {
+            return parse(parser);
+        }
+    }
+
+    public ChartSeries parse(byte[] payload) throws IOException
+    {
+        try (JsonParser parser = jsonFactory.createParser(payload))
+        {
+            return parse(parser);
+        }
+    }
+
+    private ChartSeries parse(JsonParser parser) throws IOException
+    {
+        if (parser.nextToken() != JsonToken.START_OBJECT)
+        {
+            return ChartSeries.EMPTY;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("chart".equals(field) && value == JsonToken.START_OBJECT)
+            {
+                return readChart(parser);
+            }
+            parser.skipChildren();
+        }
+        return ChartSeries.EMPTY;
+    }
+
+    private ChartSeries readChart(JsonParser parser) throws IOException
+    {
+        ChartSeries series = ChartSeries.EMPTY;
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("result".equals(field) && value == JsonToken.START_ARRAY)
+            {
+                series = readResults(parser);
+            }
+            else
+            {
+                parser.skipChildren();
+            }
+        }
+        return series;
+    }
+
+    private ChartSeries readResults(JsonParser parser) throws IOException
+    {
+        ChartSeries series = ChartSeries.EMPTY;
+        boolean first = true;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null)
+        {
+            if (first && token == JsonToken.START_OBJECT)
+            {
+                series = readResult(parser);
+            }
+            else
+            {
+                parser.skipChildren();
+            }
+            first = false;
+        }
+        return series;
+    }
+
+    private ChartSeries readResult(JsonParser parser) throws IOException
+    {
+        long[] timestamps = null;
+        int timestampCount = 0;
+        Closes closes = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("timestamp".equals(field) && value == JsonToken.START_ARRAY)
+            {
+                timestamps = new long[INITIAL_CAPACITY];
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null)
+                {
+                    if (timestampCount == timestamps.length)
+                    {
+                        timestamps = Arrays.copyOf(timestamps, timestampCount * 2);
+                    }
+                    timestamps[timestampCount++] = token == JsonToken.VALUE_NULL ? 0L : parser.getLongValue();
+                }
+            }
+            else if ("indicators".equals(field) && value == JsonToken.START_OBJECT)
+            {
+                Closes parsed = readIndicators(parser);
+                if (parsed != null)
+                {
+                    closes = parsed;
+                }
+            }
+            else
+            {
+                parser.skipChildren();
+            }
+        }
+
+        if (timestamps == null || closes == null)
+        {
+            return ChartSeries.EMPTY;
+        }
+        return new ChartSeries(timestamps, closes.values, Math.min(timestampCount, closes.count));
+    }
+
+    private Closes readIndicators(JsonParser parser) throws IOException
+    {
+        Closes closes = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("quote".equals(field) && value == JsonToken.START_ARRAY)
+            {
+                boolean first = true;
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null)
+                {
+                    if (first && token == JsonToken.START_OBJECT)
+                    {
+                        closes = readQuote(parser);
+                    }
+                    else
+                    {
+                        parser.skipChildren();
+                    }
+                    first = false;
+                }
+            }
+            else
+            {
+                parser.skipChildren();
+            }
+        }
+        return closes;
+    }
+
+    private Closes readQuote(JsonParser parser) throws IOException
+    {
+        Closes closes = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("close".equals(field) && value == JsonToken.START_ARRAY)
+            {
+                closes = new Closes();
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null)
+                {
+                    closes.add(token == JsonToken.VALUE_NULL ? Double.NaN : parser.getDoubleValue());
+                }
+            }
+            else
+            {
+                parser.skipChildren();
+            }
+        }
+        return closes;
+    }
+
+    private static final class Closes
+    {
+        private double[] values = new double[INITIAL_CAPACITY];
+        private int count;
+
+        void add(double value)
+        {
+            if (count == values.length)
+            {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = value;
+        }
+    }
+
+    /**
+     * Parallel timestamp (epoch seconds) and close columns. Bars without a close are stored as {@code NaN}.
+     */
+    public static final class ChartSeries
+    {
+        static final ChartSeries EMPTY = new ChartSeries(new long[0], new double[0], 0);
+
+        private final long[] timestamps;
+        private final double[] closes;
+        private final int length;
+
+        ChartSeries(long[] timestamps, double[] closes, int length)
+        {
+            this.timestamps = timestamps;
+            this.closes = closes;
+            this.length = length;
+        }
+
+        public int size()
+        {
+            return length;
+        }
+
+        public long timestampAt(int index)
+        {
+            return timestamps[index];
+        }
+
+        public double closeAt(int index)
+        {
+            return closes[index];
+        }
+
+        /**
+         * Index of the latest bar that carries a close, or -1 when there is none.
+         */
+        public int lastCloseIndex()
+        {
+            for (int i = length - 1; i >= 0; i--)
+            {
+                if (!Double.isNaN(closes[i]))
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
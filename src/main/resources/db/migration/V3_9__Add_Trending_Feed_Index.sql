@@ -0,0 +1,2 @@
+-- Keyset pagination of the trending feed walks posts by (trend_score, id) descending
+CREATE INDEX IF NOT EXISTS idx_posts_trend_score_id ON posts (trend_score DESC, id DESC);
@@ -0,0 +1,20 @@
+-- Home timeline: one row per (reader, post) written when a followed user posts
+CREATE TABLE timeline (
+    user_id INTEGER NOT NULL,
+    post_id INTEGER NOT NULL,
+    author_id INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id, post_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (post_id) REFERENCES posts(id) ON DELETE CASCADE,
+    FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_timeline_user_created ON timeline (user_id, created_at DESC, post_id DESC);
+CREATE INDEX idx_timeline_user_author ON timeline (user_id, author_id);
+
+INSERT INTO timeline (user_id, post_id, author_id, created_at)
+SELECT f.follower_id, p.id, p.user_id, p.created_at
+FROM follows f
+JOIN posts p ON p.user_id = f.following_id
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,10 @@
+-- trend_score becomes a time-invariant log-space key:
+-- ln(like_count + 2 * comment_count) + (-ln(0.95)) * hours since 1970-01-01, or -Infinity without engagement.
+-- It matches Post.trendScore and is maintained on every like/comment change instead of an hourly rewrite.
+UPDATE posts
+SET trend_score = CASE
+    WHEN like_count + 2 * comment_count > 0
+        THEN ln((like_count + 2 * comment_count)::double precision)
+             - ln(0.95::double precision) * (EXTRACT(EPOCH FROM created_at)::double precision / 3600.0)
+    ELSE '-Infinity'::double precision
+END;
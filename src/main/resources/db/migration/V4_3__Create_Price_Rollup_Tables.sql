@@ -0,0 +1,45 @@
+-- OHLC buckets of stockprice at hourly, daily and monthly resolution.
+-- open_time/close_time record which ticks opened and closed the bucket so late ticks merge correctly.
+CREATE TABLE stockprice_hourly (
+    ticker_symbol VARCHAR(10) NOT NULL,
+    bucket TIMESTAMP NOT NULL,
+    open DECIMAL(10, 2) NOT NULL,
+    high DECIMAL(10, 2) NOT NULL,
+    low DECIMAL(10, 2) NOT NULL,
+    close DECIMAL(10, 2) NOT NULL,
+    open_time TIMESTAMP NOT NULL,
+    close_time TIMESTAMP NOT NULL,
+    sample_count INTEGER NOT NULL,
+    PRIMARY KEY (ticker_symbol, bucket)
+);
+
+CREATE TABLE stockprice_daily (
+    ticker_symbol VARCHAR(10) NOT NULL,
+    bucket TIMESTAMP NOT NULL,
+    open DECIMAL(10, 2) NOT NULL,
+    high DECIMAL(10, 2) NOT NULL,
+    low DECIMAL(10, 2) NOT NULL,
+    close DECIMAL(10, 2) NOT NULL,
+    open_time TIMESTAMP NOT NULL,
+    close_time TIMESTAMP NOT NULL,
+    sample_count INTEGER NOT NULL,
+    PRIMARY KEY (ticker_symbol, bucket)
+);
+
+CREATE TABLE stockprice_monthly (
+    ticker_symbol VARCHAR(10) NOT NULL,
+    bucket TIMESTAMP NOT NULL,
+    open DECIMAL(10, 2) NOT NULL,
+    high DECIMAL(10, 2) NOT NULL,
+    low DECIMAL(10, 2) NOT NULL,
+    close DECIMAL(10, 2) NOT NULL,
+    open_time TIMESTAMP NOT NULL,
+    close_time TIMESTAMP NOT NULL,
+    sample_count INTEGER NOT NULL,
+    PRIMARY KEY (ticker_symbol, bucket)
+);
+
+-- Existing history is rolled up by the application's backfill job, one month at a time across all
+-- tickers; the primary key leads with ticker_symbol, so those slices need an index on date alone
+CREATE INDEX idx_stockprice_date ON stockprice (date);
+CREATE INDEX idx_stockprice_monthly_bucket ON stockprice_monthly (bucket);
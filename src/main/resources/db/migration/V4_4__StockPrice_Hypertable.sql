@@ -0,0 +1,16 @@
+-- stockprice becomes a hypertable with monthly chunks like the metrics tables, so range queries on date
+-- only touch the chunks they overlap; existing rows are moved into chunks by the migration.
+-- idx_stockprice_date from V4_3 already covers date, so no default index is added.
+SELECT create_hypertable('stockprice', 'date',
+                         chunk_time_interval => INTERVAL '1 month',
+                         create_default_indexes => false,
+                         migrate_data => true);
+
+-- Ticks older than a month are only read in bulk, segment them per ticker
+ALTER TABLE stockprice SET (timescaledb.compress,
+                            timescaledb.compress_segmentby = 'ticker_symbol',
+                            timescaledb.compress_orderby = 'date DESC');
+SELECT add_compression_policy('stockprice', INTERVAL '30 days');
+
+-- Keeps "latest snapshot per position" lookups on the index instead of scanning every chunk's history
+CREATE INDEX IF NOT EXISTS idx_positionmetrics_portfolio_date ON positionmetrics (portfolio_id, date DESC);
@@ -0,0 +1,61 @@
+-- One row per open position holding its latest snapshot, so holdings reads and trades are key lookups
+-- instead of "latest date per position" searches over the positionmetrics history
+CREATE TABLE currentpositions (
+    portfolio_id INT NOT NULL,
+    stock_id INT NOT NULL,
+    date TIMESTAMP NOT NULL,
+    quantity DECIMAL(10, 2) NOT NULL,
+    average_cost DECIMAL(10, 2) NOT NULL,
+    current_value DECIMAL(15, 2) NOT NULL,
+    total_return DECIMAL(10, 4),
+    position_weight DECIMAL(10, 4),
+    last_transaction_type VARCHAR(10),
+    last_transaction_date TIMESTAMP,
+    last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_currentpositions PRIMARY KEY (portfolio_id, stock_id),
+    CONSTRAINT fk_portfolio FOREIGN KEY (portfolio_id) REFERENCES Portfolio (portfolio_id) ON DELETE CASCADE,
+    CONSTRAINT fk_stock FOREIGN KEY (stock_id) REFERENCES Stock (stock_id) ON DELETE CASCADE
+);
+
+INSERT INTO currentpositions (portfolio_id, stock_id, date, quantity, average_cost, current_value, total_return,
+                              position_weight, last_transaction_type, last_transaction_date, last_updated)
+SELECT DISTINCT ON (pm.portfolio_id, pm.stock_id)
+       pm.portfolio_id, pm.stock_id, pm.date, pm.quantity, pm.average_cost, pm.current_value, pm.total_return,
+       pm.position_weight, pm.last_transaction_type, pm.last_transaction_date, pm.last_updated
+FROM positionmetrics pm
+JOIN portfoliostock ps ON ps.portfolio_id = pm.portfolio_id AND ps.stock_id = pm.stock_id
+ORDER BY pm.portfolio_id, pm.stock_id, pm.date DESC;
+
+-- Every write to positionmetrics, from trades or the metrics job, updates the current row in the same
+-- transaction. Older snapshots never replace a newer one; deleting the current snapshot closes the position.
+CREATE OR REPLACE FUNCTION sync_current_position()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM currentpositions
+        WHERE portfolio_id = OLD.portfolio_id AND stock_id = OLD.stock_id AND date = OLD.date;
+        RETURN OLD;
+    END IF;
+
+    INSERT INTO currentpositions (portfolio_id, stock_id, date, quantity, average_cost, current_value, total_return,
+                                  position_weight, last_transaction_type, last_transaction_date, last_updated)
+    VALUES (NEW.portfolio_id, NEW.stock_id, NEW.date, NEW.quantity, NEW.average_cost, NEW.current_value, NEW.total_return,
+            NEW.position_weight, NEW.last_transaction_type, NEW.last_transaction_date, NEW.last_updated)
+    ON CONFLICT (portfolio_id, stock_id) DO UPDATE
+        SET date = EXCLUDED.date,
+            quantity = EXCLUDED.quantity,
+            average_cost = EXCLUDED.average_cost,
+            current_value = EXCLUDED.current_value,
+            total_return = EXCLUDED.total_return,
+            position_weight = EXCLUDED.position_weight,
+            last_transaction_type = EXCLUDED.last_transaction_type,
+            last_transaction_date = EXCLUDED.last_transaction_date,
+            last_updated = EXCLUDED.last_updated
+        WHERE currentpositions.date <= EXCLUDED.date;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_positionmetrics_current_position
+    AFTER INSERT OR UPDATE OR DELETE ON positionmetrics
+    FOR EACH ROW EXECUTE FUNCTION sync_current_position();
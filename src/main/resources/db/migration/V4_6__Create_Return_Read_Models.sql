@@ -0,0 +1,21 @@
+-- Snapshots of the return views the metric endpoints read. The views are defined by the metrics pipeline
+-- and recomputed on every query; ReadModelRefresher copies their changed rows into these tables on a cadence.
+-- Plain tables rather than materialized views, so the pipeline can still drop and recreate its views.
+CREATE TABLE portfolioweightedreturn_snapshot (
+    portfolio_id INT PRIMARY KEY,
+    hourly_return NUMERIC,
+    daily_return NUMERIC,
+    monthly_return NUMERIC,
+    ytd_return NUMERIC,
+    total_return NUMERIC
+);
+
+CREATE TABLE portfolioreturnnormalized_snapshot (
+    portfolio_id INT NOT NULL,
+    date TIMESTAMP NOT NULL,
+    normalized_portfolio_return NUMERIC,
+    CONSTRAINT pk_portfolioreturnnormalized_snapshot PRIMARY KEY (portfolio_id, date)
+);
+
+-- latest_portfolio_view was dropped in V2_8 but its refresh function was left behind
+DROP FUNCTION IF EXISTS refresh_latest_portfolio_view();
@@ -0,0 +1,86 @@
+package com.inbest.backend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void get_shouldCountHitsAndMisses() {
+        // given
+        BoundedTtlCache cache = new BoundedTtlCache("test", Duration.ofMinutes(1), 10);
+        cache.put("1:a", "value");
+
+        // when
+        Object hit = cache.get("1:a", String.class);
+        Object miss = cache.get("1:b", String.class);
+
+        // then
+        assertEquals("value", hit);
+        assertNull(miss);
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.putCount());
+    }
+
+    @Test
+    void put_shouldDropLeastRecentlyUsedEntryBeyondMaxSize() {
+        // given
+        BoundedTtlCache cache = new BoundedTtlCache("test", Duration.ofMinutes(1), 2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+
+        // when
+        cache.put("c", 3);
+
+        // then
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void get_shouldExpireEntriesOlderThanTtl() {
+        // given
+        BoundedTtlCache cache = new BoundedTtlCache("test", Duration.ZERO, 10);
+        cache.put("a", 1);
+
+        // when & then
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_shouldCacheNullResults() {
+        // given
+        BoundedTtlCache cache = new BoundedTtlCache("test", Duration.ofMinutes(1), 10);
+        cache.put("a", null);
+
+        // when & then
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("a").get());
+    }
+
+    @Test
+    void evictByPrefix_shouldOnlyDropEntriesOfThatPortfolio() {
+        // given
+        BoundedTtlCache cache = new BoundedTtlCache("test", Duration.ofMinutes(1), 10);
+        cache.put(CacheNames.portfolioPrefix(1) + "best", 1);
+        cache.put(CacheNames.portfolioPrefix(1) + "worst", 2);
+        cache.put(CacheNames.portfolioPrefix(12) + "best", 3);
+
+        // when
+        cache.evictByPrefix(CacheNames.portfolioPrefix(1));
+
+        // then
+        assertNull(cache.get("1:best"));
+        assertNull(cache.get("1:worst"));
+        assertNotNull(cache.get("12:best"));
+    }
+}
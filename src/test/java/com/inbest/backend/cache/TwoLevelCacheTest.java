@@ -0,0 +1,115 @@
+package com.inbest.backend.cache;
+
+import com.inbest.backend.event.PortfolioChangedEvent;
+import com.inbest.backend.event.ReadModelRefreshedEvent;
+import com.inbest.backend.repository.ReadModelJdbcRepository.ReadModel;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoLevelCacheTest {
+
+    private InMemorySharedCacheStore shared;
+    private SimpleCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        shared = new InMemorySharedCacheStore();
+        List<Cache> caches = new ArrayList<>();
+        for (String name : CacheNames.ALL) {
+            caches.add(twoLevelCache(name));
+        }
+        cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        cacheManager.afterPropertiesSet();
+    }
+
+    @Test
+    void get_shouldServeOtherNodesEntriesFromSharedTier() {
+        // given a value cached by another node
+        twoLevelCache(CacheNames.PORTFOLIO_TRADES).put("1:best", "trade");
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache(CacheNames.PORTFOLIO_TRADES);
+
+        // when
+        Object first = cache.get("1:best", String.class);
+        Object second = cache.get("1:best", String.class);
+
+        // then
+        assertEquals("trade", first);
+        assertEquals("trade", second);
+        assertEquals(2, cache.hitCount());
+        assertEquals(1, cache.sharedHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void onPortfolioChanged_shouldEvictThatPortfolioFromBothTiers() {
+        // given
+        Cache trades = cacheManager.getCache(CacheNames.PORTFOLIO_TRADES);
+        Cache prices = cacheManager.getCache(CacheNames.PRICE_HISTORY);
+        trades.put("1:best", "trade");
+        trades.put("2:best", "other");
+        prices.put("AAPL:30:200", "points");
+
+        // when
+        new CacheInvalidationListener(cacheManager).onPortfolioChanged(new PortfolioChangedEvent(1));
+
+        // then
+        assertNull(trades.get("1:best"));
+        assertNull(shared.get(CacheNames.PORTFOLIO_TRADES, "1:best"));
+        assertNotNull(trades.get("2:best"));
+        assertNotNull(prices.get("AAPL:30:200"));
+    }
+
+    @Test
+    void onReadModelRefreshed_shouldClearPortfolioAndPositionReturns() {
+        // given
+        Cache returns = cacheManager.getCache(CacheNames.PORTFOLIO_RETURNS);
+        Cache positionReturns = cacheManager.getCache(CacheNames.POSITION_RETURNS);
+        Cache trades = cacheManager.getCache(CacheNames.PORTFOLIO_TRADES);
+        returns.put("1:WEEKLY:null", "returns");
+        positionReturns.put("1:null", "daily");
+        trades.put("1:best", "trade");
+
+        // when
+        new CacheInvalidationListener(cacheManager).onReadModelRefreshed(new ReadModelRefreshedEvent(ReadModel.NORMALIZED_RETURNS));
+
+        // then
+        assertNull(returns.get("1:WEEKLY:null"));
+        assertNull(shared.get(CacheNames.PORTFOLIO_RETURNS, "1:WEEKLY:null"));
+        assertNull(positionReturns.get("1:null"));
+        assertNull(shared.get(CacheNames.POSITION_RETURNS, "1:null"));
+        assertNotNull(trades.get("1:best"));
+    }
+
+    @Test
+    void meterBinder_shouldExportHitRatioCounters() {
+        // given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache(CacheNames.PRICE_HISTORY);
+        new InstrumentedCacheMeterBinder(cache, cache.getName(), Tags.empty()).bindTo(registry);
+        cache.put("AAPL:30:200", "points");
+
+        // when
+        cache.get("AAPL:30:200");
+        cache.get("MSFT:30:200");
+
+        // then
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", CacheNames.PRICE_HISTORY).tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", CacheNames.PRICE_HISTORY).tag("result", "miss").functionCounter().count());
+        assertEquals(0.0, registry.get("cache.shared.hits").functionCounter().count());
+    }
+
+    private TwoLevelCache twoLevelCache(String name) {
+        return new TwoLevelCache(new BoundedTtlCache(name, Duration.ofMinutes(1), 100), shared, Duration.ofMinutes(5));
+    }
+}
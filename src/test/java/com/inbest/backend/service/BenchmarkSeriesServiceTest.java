@@ -0,0 +1,185 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.model.Stock;
+import com.inbest.backend.repository.StockPriceRepository;
+import com.inbest.backend.repository.StockRepository;
+import com.inbest.backend.repository.TimeSeriesJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BenchmarkSeriesServiceTest {
+
+    @Mock
+    private StockPriceRepository stockPriceRepository;
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private TimeSeriesJdbcRepository timeSeriesJdbcRepository;
+
+    private StockPriceHistoryStore unloadedStore;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        unloadedStore = new StockPriceHistoryStore(timeSeriesJdbcRepository, 400);
+        when(stockRepository.findByTickerSymbol("SPY")).thenReturn(Optional.of(new Stock()));
+        when(stockPriceRepository.findDailyReturnsByTickerAndDateRange(eq("SPY"), any(), any())).thenReturn(List.of(
+                row(today.minusDays(2), new BigDecimal("1.25")),
+                row(today.minusDays(1), null),
+                row(today, new BigDecimal("-0.5"))));
+    }
+
+    @Test
+    void dailyReturns_shouldKeyReturnsByDay() {
+        // given
+        BenchmarkSeriesService service = new BenchmarkSeriesService(stockPriceRepository, stockRepository, unloadedStore, 60_000);
+
+        // when
+        BenchmarkSeriesService.DailySeries series = service.dailyReturns("SPY");
+
+        // then
+        assertEquals(0, new BigDecimal("1.25").compareTo(series.returnOn(today.minusDays(2))));
+        assertEquals(0, new BigDecimal("-0.5").compareTo(series.returnOn(today)));
+        assertNull(series.returnOn(today.minusDays(1)));
+        assertNull(series.returnOn(today.minusDays(3)));
+        assertNull(series.returnOn(today.plusDays(1)));
+        assertNull(series.returnOn(today.minusYears(2)));
+    }
+
+    @Test
+    void dailyReturns_shouldLoadEachTickerOnceWithinTtl() {
+        // given
+        BenchmarkSeriesService service = new BenchmarkSeriesService(stockPriceRepository, stockRepository, unloadedStore, 60_000);
+
+        // when
+        service.dailyReturns("SPY");
+        service.dailyReturns("SPY");
+
+        // then
+        verify(stockPriceRepository, times(1)).findDailyReturnsByTickerAndDateRange(eq("SPY"), any(), any());
+        verify(stockRepository, times(1)).findByTickerSymbol("SPY");
+    }
+
+    @Test
+    void dailyReturns_shouldReloadOnceExpired() {
+        // given
+        BenchmarkSeriesService service = new BenchmarkSeriesService(stockPriceRepository, stockRepository, unloadedStore, 0);
+
+        // when
+        service.dailyReturns("SPY");
+        service.dailyReturns("SPY");
+
+        // then
+        verify(stockPriceRepository, times(2)).findDailyReturnsByTickerAndDateRange(eq("SPY"), any(), any());
+    }
+
+    @Test
+    void dailyReturns_shouldRejectUnknownTicker() {
+        // given
+        when(stockRepository.findByTickerSymbol("GC=F")).thenReturn(Optional.empty());
+        BenchmarkSeriesService service = new BenchmarkSeriesService(stockPriceRepository, stockRepository, unloadedStore, 60_000);
+
+        // when
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> service.dailyReturns("GC=F"));
+
+        // then
+        assertEquals("Required stock GC=F not found", error.getMessage());
+        verify(stockPriceRepository, never()).findDailyReturnsByTickerAndDateRange(eq("GC=F"), any(), any());
+    }
+
+    @Test
+    void returnWindow_shouldLookBackFromEnd() {
+        // given
+        LocalDateTime end = LocalDateTime.of(2025, 3, 31, 12, 0);
+
+        // when / then
+        assertEquals(LocalDateTime.of(2025, 3, 24, 12, 0), BenchmarkSeriesService.ReturnWindow.WEEKLY.start(end));
+        assertEquals(LocalDateTime.of(2025, 2, 28, 12, 0), BenchmarkSeriesService.ReturnWindow.MONTHLY.start(end));
+        assertEquals(LocalDateTime.of(2024, 3, 31, 12, 0), BenchmarkSeriesService.ReturnWindow.YEARLY.start(end));
+    }
+
+    @Test
+    void asOf_shouldTakeLastPriceStrictlyBeforeEachPoint() {
+        // given
+        long[] priceTimes = {10, 20, 30};
+        BigDecimal[] prices = {new BigDecimal("1"), new BigDecimal("2"), new BigDecimal("3")};
+        long[] pointTimes = {5, 10, 11, 20, 25, 40};
+
+        // when
+        BigDecimal[] joined = BenchmarkSeriesService.asOf(priceTimes, prices, pointTimes);
+
+        // then
+        assertArrayEquals(new BigDecimal[]{null, null, prices[0], prices[0], prices[1], prices[2]}, joined);
+    }
+
+    @Test
+    void pricesBefore_shouldReadTheSpanWithOneQuery() {
+        // given
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<LocalDateTime> dates = List.of(start, start.plusDays(1), start.plusDays(2));
+        when(stockPriceRepository.findPriceSeriesWithAnchor("SPY", start, start.plusDays(2))).thenReturn(List.of(
+                new Object[]{Timestamp.valueOf(start.minusHours(1)), new BigDecimal("100.00")},
+                new Object[]{Timestamp.valueOf(start.plusHours(12)), new BigDecimal("101.00")}));
+        BenchmarkSeriesService service = new BenchmarkSeriesService(stockPriceRepository, stockRepository, unloadedStore, 60_000);
+
+        // when
+        BigDecimal[] prices = service.pricesBefore("SPY", dates);
+
+        // then
+        assertArrayEquals(new BigDecimal[]{new BigDecimal("100.00"), new BigDecimal("101.00"), new BigDecimal("101.00")}, prices);
+        verify(stockPriceRepository, times(1)).findPriceSeriesWithAnchor(any(), any(), any());
+    }
+
+    @Test
+    void loadedHistoryStore_shouldServeSeriesWithoutQueries() {
+        // given
+        LocalDateTime yesterday = today.minusDays(1).atStartOfDay();
+        doAnswer(invocation -> {
+            TimeSeriesJdbcRepository.PriceRowHandler handler = invocation.getArgument(1);
+            handler.accept("SPY", Timestamp.valueOf(yesterday.plusHours(10)).getTime(), 100.0);
+            handler.accept("SPY", Timestamp.valueOf(yesterday.plusHours(16)).getTime(), 102.0);
+            return null;
+        }).when(timeSeriesJdbcRepository).forEachPriceSince(any(), any());
+        StockPriceHistoryStore store = new StockPriceHistoryStore(timeSeriesJdbcRepository, 400);
+        store.load();
+        BenchmarkSeriesService service = new BenchmarkSeriesService(stockPriceRepository, stockRepository, store, 60_000);
+
+        // when
+        BigDecimal[] prices = service.pricesBefore("SPY", List.of(yesterday.plusHours(12), yesterday.plusHours(20)));
+        BenchmarkSeriesService.DailySeries series = service.dailyReturns("SPY");
+
+        // then
+        assertEquals(0, new BigDecimal("100").compareTo(prices[0]));
+        assertEquals(0, new BigDecimal("102").compareTo(prices[1]));
+        assertEquals(0, new BigDecimal("2").compareTo(series.returnOn(yesterday.toLocalDate())));
+        verify(stockPriceRepository, never()).findPriceSeriesWithAnchor(any(), any(), any());
+        verify(stockPriceRepository, never()).findDailyReturnsByTickerAndDateRange(any(), any(), any());
+    }
+
+    private static Map<String, Object> row(LocalDate day, BigDecimal dailyReturn) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("date", Timestamp.valueOf(day.atStartOfDay()));
+        row.put("daily_return", dailyReturn);
+        return row;
+    }
+}
@@ -0,0 +1,70 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.model.response.BestPortfolioResponse;
+import com.inbest.backend.repository.PortfolioMetricRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BestPortfoliosServiceTest {
+
+    @Mock
+    private PortfolioMetricRepository portfolioMetricRepository;
+
+    @InjectMocks
+    private BestPortfoliosService bestPortfoliosService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void getPublicLeaderboardRows_shouldAssembleAllRowsFromOneQuery() {
+        // given
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 10; id >= 1; id--) {
+            BigDecimal value = BigDecimal.valueOf(id);
+            rows.add(new Object[]{id, value, value, value, value, value, value, value, value, "Moderate",
+                    "Portfolio " + id, "public", "user" + id, "Name", "Surname", null, (long) id * 3, (long) id});
+        }
+        when(portfolioMetricRepository.findPublicLeaderboardRows()).thenReturn(rows);
+
+        // when
+        List<BestPortfolioResponse> response = bestPortfoliosService.getPublicLeaderboardRows();
+
+        // then
+        verify(portfolioMetricRepository, times(1)).findPublicLeaderboardRows();
+        verifyNoMoreInteractions(portfolioMetricRepository);
+
+        assertEquals(10, response.size());
+        assertEquals(10, response.get(0).getPortfolioMetric().getPortfolioId());
+        assertEquals(BigDecimal.valueOf(10), response.get(0).getPortfolioMetric().getTotalReturn());
+        assertEquals("Moderate", response.get(0).getPortfolioMetric().getRiskCategory());
+        assertEquals("user10", response.get(0).getUser().getUsername());
+        assertEquals(30L, response.get(0).getUser().getFollowerCount());
+        assertEquals(10, response.get(0).getBestPortfolioResponseDTO().getHoldingCount());
+        assertEquals("Portfolio 1", response.get(9).getBestPortfolioResponseDTO().getPortfolioName());
+    }
+
+    @Test
+    void getPublicLeaderboardRows_shouldReturnEmptyList_whenNothingIsRanked() {
+        // given
+        when(portfolioMetricRepository.findPublicLeaderboardRows()).thenReturn(List.of());
+
+        // when
+        List<BestPortfolioResponse> response = bestPortfoliosService.getPublicLeaderboardRows();
+
+        // then
+        assertTrue(response.isEmpty());
+    }
+}
@@ -0,0 +1,129 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.model.AuthenticatedUser;
+import com.inbest.backend.model.Role;
+import com.inbest.backend.model.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private TokenRevocationRegistry revocationRegistry;
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        revocationRegistry = new TokenRevocationRegistry();
+        jwtService = new JwtService(revocationRegistry, 100);
+        user = User.builder().id(7).username("johndoe").role(Role.USER).isVerified(true).build();
+    }
+
+    @Test
+    void verify_shouldBuildPrincipalFromClaims() {
+        // given
+        String token = jwtService.generateToken(user);
+
+        // when
+        Optional<AuthenticatedUser> principal = jwtService.verify(token);
+
+        // then
+        assertTrue(principal.isPresent());
+        assertEquals(7, principal.get().getUserId());
+        assertEquals("johndoe", principal.get().getName());
+        assertEquals("ROLE_USER", principal.get().getRole());
+        assertTrue(principal.get().isEnabled());
+        assertTrue(principal.get().isVerified());
+    }
+
+    @Test
+    void verify_shouldReuseVerifiedClaimsForRepeatedToken() {
+        // given
+        String token = jwtService.generateToken(user);
+
+        // when
+        AuthenticatedUser first = jwtService.verify(token).orElseThrow();
+        AuthenticatedUser second = jwtService.verify(token).orElseThrow();
+
+        // then
+        assertSame(first, second);
+    }
+
+    @Test
+    void verify_shouldRejectTamperedAndForeignTokens() {
+        // given
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String foreign = Jwts.builder()
+                .setClaims(Map.of("user_id", 7, "role", "ROLE_ADMIN"))
+                .setSubject("johndoe")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("another-secret-another-secret-32".getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        // when & then
+        assertTrue(jwtService.verify(tampered).isEmpty());
+        assertTrue(jwtService.verify(foreign).isEmpty());
+        assertTrue(jwtService.verify("not-a-token").isEmpty());
+    }
+
+    @Test
+    void verify_shouldRejectTokensIssuedBeforeRevocation() throws InterruptedException {
+        // given a token issued in the same second as the revocation
+        String token = jwtService.generateToken(user);
+        assertTrue(jwtService.verify(token).isPresent());
+
+        // when
+        revocationRegistry.revokeAll(7);
+        Thread.sleep(5);
+
+        // then
+        assertTrue(jwtService.verify(token).isEmpty());
+        assertTrue(jwtService.verify(jwtService.generateToken(user)).isPresent());
+    }
+
+    @Test
+    void verify_shouldRejectSecondPrecisionTokenIssuedInTheRevocationSecond() {
+        // given
+        long now = System.currentTimeMillis();
+        String legacy = Jwts.builder()
+                .setClaims(Map.of("user_id", 7, "role", "ROLE_USER"))
+                .setSubject("johndoe")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + 60_000))
+                .signWith(Keys.hmacShaKeyFor("SAMETCOKIYIYAZILIMCISAMETCOKIYIY".getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        // when
+        revocationRegistry.revokeAll(7);
+
+        // then
+        assertTrue(jwtService.verify(legacy).isEmpty());
+    }
+
+    @Test
+    void verify_shouldRejectTokenWithoutRole() {
+        // given
+        String token = Jwts.builder()
+                .setClaims(Map.of("user_id", 7))
+                .setSubject("johndoe")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("SAMETCOKIYIYAZILIMCISAMETCOKIYIY".getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        // when & then
+        assertTrue(jwtService.verify(token).isEmpty());
+    }
+}
@@ -0,0 +1,127 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.event.PortfolioChangedEvent;
+import com.inbest.backend.model.response.BestPortfolioResponse;
+import com.inbest.backend.model.response.PortfolioMetricResponse;
+import com.inbest.backend.service.LeaderboardSnapshotService.Ranking;
+import com.inbest.backend.service.LeaderboardSnapshotService.Snapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LeaderboardSnapshotServiceTest {
+
+    @Mock
+    private BestPortfoliosService bestPortfoliosService;
+
+    @InjectMocks
+    private LeaderboardSnapshotService leaderboardSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void refresh_shouldBuildEveryRankingFromOneLoad() {
+        // given
+        when(bestPortfoliosService.getPublicLeaderboardRows()).thenReturn(List.of(
+                row(1, "0.10", "0.01"),
+                row(2, "0.30", null),
+                row(3, null, "0.05"),
+                row(4, "0.20", "0.02")));
+
+        // when
+        Snapshot snapshot = leaderboardSnapshotService.refresh();
+
+        // then
+        verify(bestPortfoliosService, times(1)).getPublicLeaderboardRows();
+        assertEquals(List.of(3, 2, 4, 1), ids(snapshot.page(Ranking.TOTAL_RETURN, 0, 10)));
+        assertEquals(List.of(2, 3, 4, 1), ids(snapshot.page(Ranking.DAILY_RETURN, 0, 10)));
+        assertEquals(List.of(4, 1), ids(snapshot.page(Ranking.TOTAL_RETURN, 1, 2)));
+        assertTrue(snapshot.page(Ranking.TOTAL_RETURN, 5, 10).isEmpty());
+        assertEquals(1, snapshot.getVersion());
+        assertNotNull(snapshot.getGeneratedAt());
+    }
+
+    @Test
+    void page_shouldBeEmptyForPageWhoseOffsetOverflowsInt() {
+        // given
+        when(bestPortfoliosService.getPublicLeaderboardRows()).thenReturn(List.of(row(1, "0.10", "0.01")));
+        Snapshot snapshot = leaderboardSnapshotService.refresh();
+
+        // when
+        List<BestPortfolioResponse> page = snapshot.page(Ranking.TOTAL_RETURN, 21474837, 100);
+
+        // then
+        assertTrue(page.isEmpty());
+    }
+
+    @Test
+    void getSnapshot_shouldServeCachedSnapshotUntilMarkedDirty() {
+        // given
+        when(bestPortfoliosService.getPublicLeaderboardRows()).thenReturn(List.of(row(1, "0.10", "0.01")));
+
+        // when
+        Snapshot first = leaderboardSnapshotService.getSnapshot();
+        Snapshot second = leaderboardSnapshotService.getSnapshot();
+        leaderboardSnapshotService.refreshIfDirty();
+        leaderboardSnapshotService.markDirty();
+        leaderboardSnapshotService.refreshIfDirty();
+
+        // then
+        assertSame(first, second);
+        assertEquals(2, leaderboardSnapshotService.getSnapshot().getVersion());
+        verify(bestPortfoliosService, times(2)).getPublicLeaderboardRows();
+    }
+
+    @Test
+    void onPortfolioChanged_shouldRebuildOnNextDirtyCheck() {
+        // given
+        when(bestPortfoliosService.getPublicLeaderboardRows()).thenReturn(List.of(row(1, "0.10", "0.01")));
+        leaderboardSnapshotService.refresh();
+
+        // when
+        leaderboardSnapshotService.onPortfolioChanged(new PortfolioChangedEvent(1));
+        leaderboardSnapshotService.refreshIfDirty();
+
+        // then
+        assertEquals(2, leaderboardSnapshotService.getSnapshot().getVersion());
+    }
+
+    @Test
+    void refresh_shouldKeepPreviousSnapshot_whenReloadFails() {
+        // given
+        when(bestPortfoliosService.getPublicLeaderboardRows())
+                .thenReturn(List.of(row(1, "0.10", "0.01")))
+                .thenThrow(new RuntimeException("database unavailable"));
+        Snapshot first = leaderboardSnapshotService.refresh();
+
+        // when
+        Snapshot afterFailure = leaderboardSnapshotService.refresh();
+
+        // then
+        assertSame(first, afterFailure);
+    }
+
+    private static BestPortfolioResponse row(int portfolioId, String totalReturn, String dailyReturn) {
+        PortfolioMetricResponse metric = PortfolioMetricResponse.builder()
+                .portfolioId(portfolioId)
+                .totalReturn(totalReturn == null ? null : new BigDecimal(totalReturn))
+                .dailyReturn(dailyReturn == null ? null : new BigDecimal(dailyReturn))
+                .build();
+        return BestPortfolioResponse.builder().portfolioMetric(metric).build();
+    }
+
+    private static List<Integer> ids(List<BestPortfolioResponse> rows) {
+        return rows.stream().map(row -> row.getPortfolioMetric().getPortfolioId()).toList();
+    }
+}
@@ -0,0 +1,133 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.dto.StockQuoteDTO;
+import com.inbest.backend.model.response.IngestionRunResponse;
+import com.inbest.backend.repository.StockPriceJdbcRepository;
+import com.inbest.backend.repository.StockRepository;
+import com.inbest.backend.repository.TimeSeriesJdbcRepository;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class MarketDataIngestionServiceTest {
+
+    private static final String CHART = """
+            {"chart":{"result":[{"timestamp":[1735741800],
+            "indicators":{"quote":[{"close":[%s]}]}}],"error":null}}
+            """;
+
+    private HttpServer server;
+    private final Map<String, String> payloads = new ConcurrentHashMap<>();
+
+    private StockRepository stockRepository;
+    private StockPriceJdbcRepository stockPriceJdbcRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private PriceCache priceCache;
+    private StockPriceHistoryStore priceHistoryStore;
+    private MarketDataIngestionService underTest;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Local stand-in for the Yahoo chart API
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v8/finance/chart/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String ticker = path.substring(path.lastIndexOf('/') + 1);
+            String body = payloads.get(ticker);
+            byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(body == null ? 404 : 200, body == null ? -1 : bytes.length);
+            if (body != null) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+
+        stockRepository = mock(StockRepository.class);
+        stockPriceJdbcRepository = mock(StockPriceJdbcRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        priceCache = new PriceCache(stockRepository, meterRegistry);
+        priceHistoryStore = new StockPriceHistoryStore(mock(TimeSeriesJdbcRepository.class), 400);
+        underTest = new MarketDataIngestionService(new RestTemplate(), stockRepository, stockPriceJdbcRepository,
+                priceCache, priceHistoryStore, meterRegistry, "http://127.0.0.1:" + server.getAddress().getPort(), 4, 1000, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void ingestLatestPrices_shouldWriteAllQuotesInOneBatch() {
+        // given
+        payloads.put("AAPL", CHART.formatted("190.5"));
+        payloads.put("MSFT", CHART.formatted("420.25"));
+        payloads.put("NVDA", CHART.formatted("135.0"));
+        when(stockRepository.findAllTickerSymbols()).thenReturn(new LinkedHashSet<>(List.of("AAPL", "MSFT", "NVDA")));
+        when(stockPriceJdbcRepository.saveLatestPrices(anyList())).thenReturn(new boolean[]{true, true, true});
+
+        // when
+        IngestionRunResponse run = underTest.ingestLatestPrices();
+
+        // then
+        ArgumentCaptor<List<StockQuoteDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(stockPriceJdbcRepository, times(1)).saveLatestPrices(captor.capture());
+        verify(stockRepository, never()).updateCurrentPrice(anyString(), anyDouble());
+
+        List<StockQuoteDTO> quotes = captor.getValue();
+        assertEquals(3, quotes.size());
+        assertEquals(190.5, quotes.get(0).getPrice());
+        assertEquals("MSFT", quotes.get(1).getTickerSymbol());
+
+        assertEquals(3, run.getSuccessCount());
+        assertEquals(0, run.getFailureCount());
+        assertEquals("Updated successfully", run.getResults().get(2).get("status"));
+        assertEquals(3, meterRegistry.get("market.data.fetch").timer().count());
+        assertEquals(1, meterRegistry.get("market.data.ingestion.run").timer().count());
+        assertEquals(420.25, priceCache.get("MSFT").orElseThrow().getPrice());
+        assertEquals(1, priceCache.get("MSFT").orElseThrow().getVersion());
+        assertEquals(1, priceHistoryStore.prices("MSFT", LocalDateTime.of(2000, 1, 1, 0, 0), LocalDateTime.of(2100, 1, 1, 0, 0)).size());
+    }
+
+    @Test
+    void ingestLatestPrices_shouldReportFailedTickersWithoutWritingThem() {
+        // given
+        payloads.put("AAPL", CHART.formatted("190.5"));
+        payloads.put("EMPTY", "{\"chart\":{\"result\":[],\"error\":null}}");
+        when(stockRepository.findAllTickerSymbols()).thenReturn(new LinkedHashSet<>(List.of("AAPL", "MISSING", "EMPTY")));
+        when(stockPriceJdbcRepository.saveLatestPrices(anyList())).thenReturn(new boolean[]{true});
+
+        // when
+        IngestionRunResponse run = underTest.ingestLatestPrices();
+
+        // then
+        ArgumentCaptor<List<StockQuoteDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(stockPriceJdbcRepository).saveLatestPrices(captor.capture());
+        assertEquals(1, captor.getValue().size());
+
+        assertEquals(1, run.getSuccessCount());
+        assertEquals(2, run.getFailureCount());
+        assertEquals("MISSING", run.getResults().get(1).get("symbol"));
+        assertNotNull(run.getResults().get(1).get("error"));
+        assertEquals(2.0, meterRegistry.get("market.data.fetch.failures").counter().count());
+    }
+}
@@ -0,0 +1,123 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.dto.PortfolioReturnDTO;
+import com.inbest.backend.model.TimeSeries;
+import com.inbest.backend.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PortfolioMetricServiceTest {
+
+    @Mock
+    private PortfolioMetricRepository portfolioMetricRepository;
+
+    @Mock
+    private ReadModelJdbcRepository readModelJdbcRepository;
+
+    @Mock
+    private ReadModelRefresher readModelRefresher;
+
+    @Mock
+    private PortfolioRepository portfolioRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private StockPriceRepository stockPriceRepository;
+
+    @Mock
+    private TimeSeriesJdbcRepository timeSeriesJdbcRepository;
+
+    private PortfolioMetricService portfolioMetricService;
+
+    private final LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        BenchmarkSeriesService benchmarkSeriesService = new BenchmarkSeriesService(stockPriceRepository, stockRepository,
+                new StockPriceHistoryStore(timeSeriesJdbcRepository, 400), 60_000);
+        portfolioMetricService = new PortfolioMetricService(portfolioMetricRepository, readModelJdbcRepository,
+                readModelRefresher, portfolioRepository, userRepository, timeSeriesJdbcRepository, benchmarkSeriesService);
+    }
+
+    @Test
+    void getPortfolioReturns_shouldQueryEachBenchmarkOnceRegardlessOfSeriesLength() {
+        // given a year of hourly portfolio points
+        TimeSeries series = new TimeSeries();
+        for (int hour = 0; hour < 24 * 365; hour++) {
+            series.add(start.plusHours(hour), 100 + hour % 7);
+        }
+        when(timeSeriesJdbcRepository.findPortfolioReturns(1, false)).thenReturn(series);
+        when(stockPriceRepository.findPriceSeriesWithAnchor(eq("SPY"), any(), any())).thenReturn(List.<Object[]>of(
+                new Object[]{Timestamp.valueOf(start.minusHours(1)), new BigDecimal("500.00")},
+                new Object[]{Timestamp.valueOf(start.plusDays(100)), new BigDecimal("550.00")}));
+        when(stockPriceRepository.findPriceSeriesWithAnchor(eq("GC=F"), any(), any())).thenReturn(List.of());
+
+        // when
+        List<PortfolioReturnDTO> returns = portfolioMetricService.getPortfolioReturns(1, 14);
+
+        // then
+        assertEquals(14, returns.size());
+        assertEquals(start, returns.get(0).getDate());
+        assertEquals(0, new BigDecimal("100").compareTo(returns.get(0).getSpyReturn()));
+        assertEquals(0, new BigDecimal("110").compareTo(returns.get(returns.size() - 1).getSpyReturn()));
+        assertEquals(0, new BigDecimal("100").compareTo(returns.get(returns.size() - 1).getGoldReturn()));
+        verify(stockPriceRepository, times(1)).findPriceSeriesWithAnchor(eq("SPY"), any(), any());
+        verify(stockPriceRepository, times(1)).findPriceSeriesWithAnchor(eq("GC=F"), any(), any());
+        verify(stockPriceRepository, never()).findTopByTickerSymbolAndDateBeforeOrderByDateDesc(any(), any());
+    }
+
+    @Test
+    void getPortfolioReturns_shouldKeepTheSpikeWhenDownsampling() {
+        // given a flat series with one spike between the evenly spaced sample positions
+        TimeSeries series = new TimeSeries();
+        for (int day = 0; day < 365; day++) {
+            series.add(start.plusDays(day), day == 101 ? 180 : 100);
+        }
+        when(timeSeriesJdbcRepository.findPortfolioReturns(1, false)).thenReturn(series);
+        when(stockPriceRepository.findPriceSeriesWithAnchor(any(), any(), any())).thenReturn(List.of());
+
+        // when
+        List<PortfolioReturnDTO> returns = portfolioMetricService.getPortfolioReturns(1, 14);
+
+        // then
+        assertEquals(14, returns.size());
+        assertTrue(returns.stream().anyMatch(point -> point.getDate().equals(start.plusDays(101))
+                && point.getPortfolioReturn().compareTo(BigDecimal.valueOf(180)) == 0));
+    }
+
+    @Test
+    void getPortfolioReturns_shouldReturnTheStoredDecimals() {
+        // given
+        TimeSeries series = new TimeSeries();
+        for (int day = 0; day < 365; day++) {
+            series.add(Timestamp.valueOf(start.plusDays(day)).getTime(), day == 101 ? new BigDecimal("112.340000") : new BigDecimal("100.000000"));
+        }
+        when(timeSeriesJdbcRepository.findPortfolioReturns(1, false)).thenReturn(series);
+        when(stockPriceRepository.findPriceSeriesWithAnchor(any(), any(), any())).thenReturn(List.of());
+
+        // when
+        List<PortfolioReturnDTO> returns = portfolioMetricService.getPortfolioReturns(1, 14);
+
+        // then
+        assertEquals("100.000000", returns.get(0).getPortfolioReturn().toPlainString());
+        assertTrue(returns.stream().anyMatch(point -> point.getPortfolioReturn().toPlainString().equals("112.340000")));
+    }
+}
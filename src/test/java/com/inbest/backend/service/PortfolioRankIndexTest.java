@@ -0,0 +1,91 @@
+package com.inbest.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioRankIndexTest {
+
+    @Test
+    void rankOf_shouldMatchSqlRankWithTies() {
+        // given
+        PortfolioRankIndex index = new PortfolioRankIndex();
+        index.put(1, new BigDecimal("0.25"));
+        index.put(2, new BigDecimal("0.10"));
+        index.put(3, new BigDecimal("0.250"));
+        index.put(4, new BigDecimal("-0.05"));
+
+        // when & then
+        assertEquals(1, index.rankOf(1));
+        assertEquals(1, index.rankOf(3));
+        assertEquals(3, index.rankOf(2));
+        assertEquals(4, index.rankOf(4));
+        assertEquals(4, index.size());
+        assertEquals(-1, index.rankOf(99));
+    }
+
+    @Test
+    void rankOf_shouldStayConsistentAcrossUpdatesAndRemovals() {
+        // given
+        Random random = new Random(42);
+        PortfolioRankIndex index = new PortfolioRankIndex();
+        Map<Integer, BigDecimal> expected = new HashMap<>();
+
+        // when
+        for (int step = 0; step < 5_000; step++) {
+            int portfolioId = random.nextInt(300);
+            if (random.nextInt(5) == 0) {
+                index.remove(portfolioId);
+                expected.remove(portfolioId);
+            } else {
+                BigDecimal value = BigDecimal.valueOf(random.nextInt(200) - 100, 2);
+                index.put(portfolioId, value);
+                expected.put(portfolioId, value);
+            }
+        }
+
+        // then
+        assertEquals(expected.size(), index.size());
+        for (Map.Entry<Integer, BigDecimal> entry : expected.entrySet()) {
+            long greater = expected.values().stream().filter(v -> v.compareTo(entry.getValue()) > 0).count();
+            assertEquals(greater + 1, index.rankOf(entry.getKey()), "portfolio " + entry.getKey());
+        }
+    }
+
+    @Test
+    void replaceAll_shouldDropPreviousEntries() {
+        // given
+        PortfolioRankIndex index = new PortfolioRankIndex();
+        index.put(1, BigDecimal.ONE);
+
+        // when
+        boolean replaced = index.replaceAll(Map.of(2, BigDecimal.TEN, 3, BigDecimal.ZERO), index.version());
+
+        // then
+        assertTrue(replaced);
+        assertEquals(2, index.size());
+        assertEquals(-1, index.rankOf(1));
+        assertEquals(2, index.rankOf(3));
+    }
+
+    @Test
+    void replaceAll_shouldDiscardReloadThatRacedWithAChange() {
+        // given
+        PortfolioRankIndex index = new PortfolioRankIndex();
+        long version = index.version();
+        index.put(1, BigDecimal.ONE);
+
+        // when
+        boolean replaced = index.replaceAll(Map.of(2, BigDecimal.TEN), version);
+
+        // then
+        assertFalse(replaced);
+        assertEquals(1, index.rankOf(1));
+        assertEquals(-1, index.rankOf(2));
+    }
+}
@@ -0,0 +1,78 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.model.response.PortfolioRankResponse;
+import com.inbest.backend.repository.PortfolioRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PortfolioRankServiceTest {
+
+    @Mock
+    private PortfolioRepository portfolioRepository;
+
+    private PortfolioRankService portfolioRankService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        portfolioRankService = new PortfolioRankService(portfolioRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rebuild_shouldRedoReloadThatRacedWithAnUpdate() {
+        // given the first reload reads the database before a new portfolio commits
+        List<Object[]> before = new ArrayList<>();
+        before.add(new Object[]{1, BigDecimal.ONE});
+        List<Object[]> after = new ArrayList<>(before);
+        after.add(new Object[]{2, BigDecimal.TEN});
+        when(portfolioRepository.findLatestTotalReturns())
+                .thenAnswer(invocation -> {
+                    portfolioRankService.update(2, BigDecimal.TEN);
+                    return before;
+                })
+                .thenReturn(after);
+
+        // when
+        portfolioRankService.rebuild();
+
+        // then
+        verify(portfolioRepository, times(2)).findLatestTotalReturns();
+        PortfolioRankResponse rank = portfolioRankService.getPortfolioRank(2);
+        assertEquals(1, rank.getRank());
+        assertEquals(2, rank.getTotal());
+    }
+
+    @Test
+    void update_shouldApplyOnlyAfterCommit() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        portfolioRankService.update(5, BigDecimal.ONE);
+
+        // then
+        assertThrows(EntityNotFoundException.class, () -> portfolioRankService.getPortfolioRank(5));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, portfolioRankService.getPortfolioRank(5).getRank());
+    }
+}
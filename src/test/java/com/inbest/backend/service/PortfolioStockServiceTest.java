@@ -0,0 +1,152 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.dto.InvestmentActivityResponseDTO;
+import com.inbest.backend.event.PortfolioChangedEvent;
+import com.inbest.backend.model.InvestmentActivity;
+import com.inbest.backend.model.Portfolio;
+import com.inbest.backend.model.PortfolioStockModel;
+import com.inbest.backend.model.Stock;
+import com.inbest.backend.model.position.CurrentPosition;
+import com.inbest.backend.model.position.PortfolioStockMetric;
+import com.inbest.backend.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PortfolioStockServiceTest {
+
+    @Mock
+    private PortfolioStockRepository portfolioStockRepository;
+
+    @Mock
+    private PortfolioRepository portfolioRepository;
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private PortfolioStockMetricRepository portfolioStockMetricRepository;
+
+    @Mock
+    private CurrentPositionRepository currentPositionRepository;
+
+    @Mock
+    private InvestmentActivityRepository investmentActivityRepository;
+
+    @Mock
+    private TradeMetricsRepository tradeMetricsRepository;
+
+    @Mock
+    private PriceCache priceCache;
+
+    @Mock
+    private PortfolioValuationEngine portfolioValuationEngine;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PortfolioStockService portfolioStockService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void addStockToPortfolio_shouldRecordWeightReadAfterRecalculation() throws Exception {
+        // given
+        LocalDateTime snapshotDate = LocalDateTime.of(2025, 1, 10, 16, 0);
+        Portfolio portfolio = Portfolio.builder().portfolioId(7).build();
+        Stock stock = Stock.builder().stockId(3).tickerSymbol("AAPL").stockName("Apple").currentPrice(150.0).build();
+        when(portfolioStockMetricRepository.findLatestDateByPortfolioId(7)).thenReturn(snapshotDate);
+        when(portfolioRepository.findById(7L)).thenReturn(Optional.of(portfolio));
+        when(stockRepository.findByTickerSymbol("AAPL")).thenReturn(Optional.of(stock));
+        when(portfolioStockRepository.existsByPortfolioAndStock(portfolio, stock)).thenReturn(false);
+        when(priceCache.priceOf(stock)).thenReturn(BigDecimal.valueOf(150));
+        when(currentPositionRepository.findByPortfolioIdAndStockId(7, 3))
+                .thenReturn(Optional.of(position(snapshotDate, 5.0, "150.00", "0.2500")));
+
+        // when
+        InvestmentActivityResponseDTO response = portfolioStockService.addStockToPortfolio(7, "AAPL", 5.0);
+
+        // then
+        ArgumentCaptor<InvestmentActivity> activity = ArgumentCaptor.forClass(InvestmentActivity.class);
+        InOrder inOrder = inOrder(portfolioStockMetricRepository, currentPositionRepository, investmentActivityRepository);
+        inOrder.verify(portfolioStockMetricRepository).recalculatePositionWeights(7, snapshotDate);
+        inOrder.verify(currentPositionRepository).findByPortfolioIdAndStockId(7, 3);
+        inOrder.verify(investmentActivityRepository).save(activity.capture());
+        assertEquals(new BigDecimal("0.2500"), activity.getValue().getNewPositionWeight());
+        assertEquals(BigDecimal.ZERO, response.getOld_position_weight());
+        assertEquals(new BigDecimal("0.2500"), response.getNew_position_weight());
+    }
+
+    @Test
+    void recalculatePositionWeights_shouldThrow_whenPortfolioHasNoMetrics() {
+        // given
+        when(portfolioStockMetricRepository.findLatestDateByPortfolioId(7)).thenReturn(null);
+
+        // when & then
+        Exception exception = assertThrows(Exception.class, () -> portfolioStockService.recalculatePositionWeights(7));
+        assertEquals("No records found for the portfolio", exception.getMessage());
+        verify(portfolioStockMetricRepository, never()).recalculatePositionWeights(any(), any());
+    }
+
+    @Test
+    void updateQuantity_shouldReadCurrentPositionByKeyAndRewriteItsSnapshot() throws Exception {
+        // given
+        LocalDateTime snapshotDate = LocalDateTime.of(2025, 1, 10, 16, 0);
+        Portfolio portfolio = Portfolio.builder().portfolioId(7).build();
+        Stock stock = Stock.builder().stockId(3).tickerSymbol("AAPL").stockName("Apple").currentPrice(120.0).build();
+        when(portfolioRepository.findById(7L)).thenReturn(Optional.of(portfolio));
+        when(stockRepository.findByTickerSymbol("AAPL")).thenReturn(Optional.of(stock));
+        when(portfolioStockRepository.existsByPortfolioAndStock(portfolio, stock)).thenReturn(true);
+        when(portfolioStockRepository.findByPortfolio_PortfolioIdAndStock_StockId(7, 3))
+                .thenReturn(Optional.of(PortfolioStockModel.builder().portfolio(portfolio).stock(stock).quantity(10.0).build()));
+        when(priceCache.priceOf(stock)).thenReturn(BigDecimal.valueOf(120));
+        when(currentPositionRepository.findByPortfolioIdAndStockId(7, 3)).thenReturn(
+                Optional.of(position(snapshotDate, 10.0, "100.00", "0.5000")),
+                Optional.of(position(snapshotDate, 20.0, "110.00", "0.6000")));
+        when(portfolioStockMetricRepository.findLatestDateByPortfolioId(7)).thenReturn(snapshotDate);
+
+        // when
+        InvestmentActivityResponseDTO response = portfolioStockService.updateQuantity(7, "AAPL", 20.0);
+
+        // then
+        ArgumentCaptor<PortfolioStockMetric> snapshot = ArgumentCaptor.forClass(PortfolioStockMetric.class);
+        verify(portfolioStockMetricRepository).save(snapshot.capture());
+        assertEquals(snapshotDate, snapshot.getValue().getDate());
+        assertEquals(20.0, snapshot.getValue().getQuantity());
+        assertEquals(new BigDecimal("110.00"), snapshot.getValue().getAverageCost());
+        assertEquals("BUY", snapshot.getValue().getLastTransactionType());
+        verify(portfolioStockMetricRepository).recalculatePositionWeights(7, snapshotDate);
+        assertEquals(new BigDecimal("0.5000"), response.getOld_position_weight());
+        assertEquals(new BigDecimal("0.6000"), response.getNew_position_weight());
+        verify(eventPublisher).publishEvent(new PortfolioChangedEvent(7));
+    }
+
+    private static CurrentPosition position(LocalDateTime date, double quantity, String averageCost, String weight) {
+        return CurrentPosition.builder()
+                .portfolioId(7)
+                .stockId(3)
+                .date(date)
+                .quantity(quantity)
+                .averageCost(new BigDecimal(averageCost))
+                .currentValue(new BigDecimal(averageCost))
+                .positionWeight(new BigDecimal(weight))
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.repository.CurrentPositionRepository;
+import com.inbest.backend.repository.StockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PortfolioValuationEngineTest {
+
+    private PriceCache priceCache;
+    private CurrentPositionRepository currentPositionRepository;
+    private PortfolioValuationEngine underTest;
+
+    @BeforeEach
+    void setUp() {
+        priceCache = new PriceCache(mock(StockRepository.class), new SimpleMeterRegistry());
+        priceCache.update("AAPL", 200.0);
+        priceCache.update("MSFT", 400.0);
+        priceCache.update("NVDA", 100.0);
+
+        currentPositionRepository = mock(CurrentPositionRepository.class);
+        when(currentPositionRepository.findHoldings()).thenReturn(List.of(
+                new Object[]{1, 10, "AAPL", "Apple", 10.0, new BigDecimal("150.00")},
+                new Object[]{1, 11, "MSFT", "Microsoft", 5.0, new BigDecimal("400.00")},
+                new Object[]{2, 12, "NVDA", "Nvidia", 20.0, new BigDecimal("50.00")}));
+
+        underTest = new PortfolioValuationEngine(currentPositionRepository, priceCache);
+        underTest.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void initialize_shouldValueHoldingsAtCachedPrices() {
+        // when
+        PortfolioValuationEngine.Valuation valuation = underTest.getValuation(1).orElseThrow();
+
+        // then
+        assertEquals(4000.0, valuation.getMarketValue(), 1e-9);
+        assertEquals(3500.0, valuation.getCostBasis(), 1e-9);
+        assertEquals(500.0, valuation.getUnrealizedPnl(), 1e-9);
+        PortfolioValuationEngine.PositionValuation apple = valuation.getPositions().get(0);
+        assertEquals("AAPL", apple.getTickerSymbol());
+        assertEquals(0.5, apple.getWeight(), 1e-9);
+        assertEquals(200.0 / 150.0 - 1, apple.getTotalReturn(), 1e-9);
+    }
+
+    @Test
+    void onPriceChange_shouldRevalueOnlyPortfoliosHoldingTheTicker() {
+        // given
+        PortfolioValuationEngine.Valuation untouched = underTest.getValuation(2).orElseThrow();
+
+        // when
+        priceCache.update("AAPL", 300.0);
+
+        // then
+        PortfolioValuationEngine.Valuation valuation = underTest.getValuation(1).orElseThrow();
+        assertEquals(5000.0, valuation.getMarketValue(), 1e-9);
+        assertEquals(0.6, valuation.getPositions().get(0).getWeight(), 1e-9);
+        assertSame(untouched, underTest.getValuation(2).orElseThrow());
+    }
+
+    @Test
+    void setAndRemovePosition_shouldKeepTickerIndexInSync() {
+        // when
+        underTest.setPosition(2, 10, "AAPL", "Apple", 1.0, new BigDecimal("250.00"));
+        underTest.removePosition(1, "AAPL");
+        priceCache.update("AAPL", 100.0);
+
+        // then
+        assertEquals(2100.0, underTest.getValuation(2).orElseThrow().getMarketValue(), 1e-9);
+        PortfolioValuationEngine.Valuation first = underTest.getValuation(1).orElseThrow();
+        assertEquals(1, first.getPositions().size());
+        assertEquals(2000.0, first.getMarketValue(), 1e-9);
+
+        underTest.removePortfolio(2);
+        assertTrue(underTest.getValuation(2).isEmpty());
+    }
+
+    @Test
+    void setPosition_shouldApplyOnlyAfterCommit() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        underTest.setPosition(2, 10, "AAPL", "Apple", 1.0, new BigDecimal("250.00"));
+
+        // then
+        assertEquals(2000.0, underTest.getValuation(2).orElseThrow().getMarketValue(), 1e-9);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(2200.0, underTest.getValuation(2).orElseThrow().getMarketValue(), 1e-9);
+    }
+
+    @Test
+    void rebuild_shouldRedoReloadThatRacedWithATrade() {
+        // given a trade commits while the holdings are being read
+        List<Object[]> before = new ArrayList<>();
+        before.add(new Object[]{2, 12, "NVDA", "Nvidia", 20.0, new BigDecimal("50.00")});
+        List<Object[]> after = new ArrayList<>(before);
+        after.add(new Object[]{2, 10, "AAPL", "Apple", 1.0, new BigDecimal("250.00")});
+        when(currentPositionRepository.findHoldings())
+                .thenAnswer(invocation -> {
+                    underTest.setPosition(2, 10, "AAPL", "Apple", 1.0, new BigDecimal("250.00"));
+                    return before;
+                })
+                .thenReturn(after);
+
+        // when
+        underTest.rebuild();
+
+        // then
+        assertEquals(2200.0, underTest.getValuation(2).orElseThrow().getMarketValue(), 1e-9);
+        assertArrayEquals(new int[]{2}, underTest.portfoliosHolding("AAPL"));
+    }
+
+    @Test
+    void getValuation_shouldValueStoredPositionsBeforeTheFirstLoad() {
+        // given
+        PortfolioValuationEngine fresh = new PortfolioValuationEngine(currentPositionRepository, priceCache);
+        when(currentPositionRepository.findHoldingsByPortfolioId(2)).thenReturn(List.<Object[]>of(
+                new Object[]{2, 12, "NVDA", "Nvidia", 20.0, new BigDecimal("50.00")}));
+
+        // when
+        PortfolioValuationEngine.Valuation valuation = fresh.getValuation(2).orElseThrow();
+
+        // then
+        assertEquals(2000.0, valuation.getMarketValue(), 1e-9);
+        assertTrue(fresh.getValuation(3).isEmpty());
+    }
+}
@@ -0,0 +1,238 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.dto.PostCreateDTO;
+import com.inbest.backend.dto.PostResponseDTO;
+import com.inbest.backend.dto.TrendingPostsPageDTO;
+import com.inbest.backend.model.*;
+import com.inbest.backend.repository.InvestmentActivityRepository;
+import com.inbest.backend.repository.LikeRepository;
+import com.inbest.backend.repository.PostRepository;
+import com.inbest.backend.repository.TimelineRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PostServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private InvestmentActivityRepository investmentActivityRepository;
+
+    @Mock
+    private TimelineRepository timelineRepository;
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private PostService postService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getTrendingPosts_shouldPushPagingDownAndReturnCursor() {
+        // given
+        when(postRepository.findPublicTrending(any(Pageable.class))).thenReturn(posts(11, 50.0));
+
+        // when
+        TrendingPostsPageDTO page = postService.getTrendingPosts(2, 10);
+
+        // then
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(postRepository).findPublicTrending(pageable.capture());
+        assertEquals(11, pageable.getValue().getOffset());
+        assertEquals(11, pageable.getValue().getPageSize());
+        assertEquals(10, page.getPosts().size());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void getTrendingPostsAfter_shouldContinueFromCursorPosition() {
+        // given
+        when(postRepository.findPublicTrending(any(Pageable.class))).thenReturn(posts(11, 50.0));
+        String cursor = postService.getTrendingPosts(1, 10).getNextCursor();
+        when(postRepository.findPublicTrendingAfter(anyDouble(), anyLong(), any(Pageable.class))).thenReturn(posts(3, 10.0));
+
+        // when
+        TrendingPostsPageDTO page = postService.getTrendingPostsAfter(cursor, 10);
+
+        // then
+        // The tenth post of the first page has id 10 and score 50 - 9
+        verify(postRepository).findPublicTrendingAfter(eq(41.0), eq(10L), any(Pageable.class));
+        assertEquals(3, page.getPosts().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getTrendingPostsAfter_shouldRejectMalformedCursor() {
+        // when & then
+        assertThrows(IllegalArgumentException.class, () -> postService.getTrendingPostsAfter("not-a-cursor!", 10));
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void getPostsFromFollowedUsers_shouldReadOneTimelinePage() {
+        // given
+        User reader = User.builder().id(9).username("reader").build();
+        setAuthenticatedUser("reader");
+        when(userService.getCurrentUser()).thenReturn(reader);
+        when(timelineRepository.findTimelinePosts(eq(9), any(Pageable.class))).thenReturn(posts(10, 5.0));
+
+        // when
+        List<PostResponseDTO> page = postService.getPostsFromFollowedUsers(3, 10);
+
+        // then
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(timelineRepository).findTimelinePosts(eq(9), pageable.capture());
+        assertEquals(20, pageable.getValue().getOffset());
+        assertEquals(10, page.size());
+    }
+
+    @Test
+    void getTrendingPosts_shouldResolveViewerAndLikesOncePerPage() {
+        // given
+        User reader = User.builder().id(9).username("reader").build();
+        setAuthenticatedUser("reader");
+        when(userService.findCurrentUser()).thenReturn(Optional.of(reader));
+        when(postRepository.findPublicTrending(any(Pageable.class))).thenReturn(posts(20, 50.0));
+        when(likeRepository.findLikedPostIds(eq(9), anyCollection())).thenReturn(Set.of(2L, 7L));
+
+        // when
+        TrendingPostsPageDTO page = postService.getTrendingPosts(1, 20);
+
+        // then
+        verify(userService, times(1)).findCurrentUser();
+        verify(likeRepository, times(1)).findLikedPostIds(eq(9), anyCollection());
+        verify(likeRepository, never()).existsByUserIdAndPostId(anyInt(), anyLong());
+        assertEquals(20, page.getPosts().size());
+        assertEquals(2, page.getPosts().stream().filter(PostResponseDTO::isLiked).count());
+        assertTrue(page.getPosts().get(1).isLiked());
+        assertFalse(page.getPosts().get(0).isLiked());
+    }
+
+    @Test
+    void getTrendingPosts_shouldSkipLikeLookupForAnonymousViewer() {
+        // given
+        when(postRepository.findPublicTrending(any(Pageable.class))).thenReturn(posts(5, 50.0));
+
+        // when
+        TrendingPostsPageDTO page = postService.getTrendingPosts(1, 10);
+
+        // then
+        verifyNoInteractions(likeRepository, userCache);
+        assertTrue(page.getPosts().stream().noneMatch(PostResponseDTO::isLiked));
+    }
+
+    @Test
+    void createPost_shouldFanOutToFollowerTimelines() {
+        // given
+        User author = User.builder().id(1).username("johndoe").build();
+        setAuthenticatedUser("johndoe");
+        InvestmentActivity activity = posts(1, 0).get(0).getInvestmentActivity();
+        when(userService.getCurrentUser()).thenReturn(author);
+        when(investmentActivityRepository.findById(1L)).thenReturn(Optional.of(activity));
+        when(postRepository.save(any(Post.class))).thenAnswer(invocation -> {
+            Post saved = invocation.getArgument(0);
+            saved.setId(77L);
+            return saved;
+        });
+        PostCreateDTO dto = new PostCreateDTO();
+        dto.setContent("Bought more");
+        dto.setInvestmentActivityId(1L);
+
+        // when
+        postService.createPost(dto);
+
+        // then
+        verify(timelineRepository, times(1)).fanOutPost(77L);
+    }
+
+    @Test
+    void trendScore_shouldOrderLikeHourlyDecayedEngagement() {
+        // given
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        int[][] engagement = {{10, 0}, {3, 2}, {40, 5}, {1, 0}, {0, 1}};
+        int[] ageHours = {0, 5, 30, 1, 2};
+
+        // when
+        double[] keys = new double[engagement.length];
+        double[] decayed = new double[engagement.length];
+        for (int i = 0; i < engagement.length; i++) {
+            keys[i] = Post.trendScore(engagement[i][0], engagement[i][1], now.minusHours(ageHours[i]));
+            decayed[i] = (engagement[i][0] + 2 * engagement[i][1]) * Math.pow(0.95, ageHours[i]);
+        }
+
+        // then
+        for (int i = 0; i < keys.length; i++) {
+            for (int j = 0; j < keys.length; j++) {
+                if (Math.abs(decayed[i] - decayed[j]) > 1e-9) {
+                    assertEquals(decayed[i] > decayed[j], keys[i] > keys[j]);
+                }
+            }
+        }
+        assertEquals(Double.NEGATIVE_INFINITY, Post.trendScore(0, 0, now));
+    }
+
+    private static void setAuthenticatedUser(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private static List<Post> posts(int count, double firstScore) {
+        User user = User.builder().id(1).username("johndoe").name("John").surname("Doe").build();
+        Portfolio portfolio = Portfolio.builder().portfolioId(3).visibility("public").user(user).build();
+        Stock stock = Stock.builder().stockId(4).tickerSymbol("AAPL").stockName("Apple").build();
+
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            InvestmentActivity activity = new InvestmentActivity();
+            activity.setActivityId((long) i + 1);
+            activity.setPortfolio(portfolio);
+            activity.setStock(stock);
+            activity.setActionType(InvestmentActivity.ActionType.BUY);
+
+            Post post = new Post();
+            post.setId((long) i + 1);
+            post.setContent("post " + i);
+            post.setUser(user);
+            post.setInvestmentActivity(activity);
+            post.setTrendScore(firstScore - i);
+            posts.add(post);
+        }
+        return posts;
+    }
+}
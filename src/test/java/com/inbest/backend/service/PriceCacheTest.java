@@ -0,0 +1,81 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.model.Stock;
+import com.inbest.backend.repository.StockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PriceCacheTest {
+
+    private StockRepository stockRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private PriceCache underTest;
+
+    @BeforeEach
+    void setUp() {
+        stockRepository = mock(StockRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new PriceCache(stockRepository, meterRegistry);
+    }
+
+    @Test
+    void get_shouldLoadOnceAndServeFromMemoryAfterwards() {
+        // given
+        Stock stock = Stock.builder().stockId(1).tickerSymbol("AAPL").stockName("Apple").currentPrice(190.0).build();
+        when(stockRepository.findByTickerSymbol("AAPL")).thenReturn(Optional.of(stock));
+
+        // when
+        underTest.get("AAPL");
+        underTest.get("AAPL");
+        BigDecimal price = underTest.priceOf(stock);
+
+        // then
+        assertEquals(BigDecimal.valueOf(190.0), price);
+        verify(stockRepository, times(1)).findByTickerSymbol("AAPL");
+        assertEquals(2.0, meterRegistry.get("price.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("price.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void update_shouldBumpVersionAndNotifyOnlyOnChange() {
+        // given
+        List<Double> seen = new ArrayList<>();
+        underTest.subscribe((previous, current) -> seen.add(current.getPrice()));
+
+        // when
+        underTest.update("MSFT", 420.0);
+        underTest.update("MSFT", 420.0);
+        PriceCache.Entry latest = underTest.update("MSFT", 421.5);
+
+        // then
+        assertEquals(3, latest.getVersion());
+        assertEquals(List.of(420.0, 421.5), seen);
+        verifyNoInteractions(stockRepository);
+    }
+
+    @Test
+    void warmUp_shouldKeepTheStoredQuoteTime() {
+        // given
+        LocalDateTime quotedAt = LocalDateTime.now().minusDays(3);
+        Stock stock = Stock.builder().stockId(1).tickerSymbol("AAPL").stockName("Apple").currentPrice(190.0).updatedAt(quotedAt).build();
+        when(stockRepository.findAllStocks()).thenReturn(List.of(stock));
+
+        // when
+        underTest.warmUp();
+
+        // then
+        double staleness = meterRegistry.get("price.cache.staleness").gauge().value();
+        assertTrue(staleness >= 3 * 24 * 3600, "warmed price should report its real age, was " + staleness);
+        assertEquals(0, underTest.get("AAPL").orElseThrow().getVersion());
+    }
+}
@@ -0,0 +1,79 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.repository.PriceRollupJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PriceRollupBackfillServiceTest {
+
+    @Mock
+    private PriceRollupJdbcRepository priceRollupJdbcRepository;
+
+    private PriceRollupBackfillService backfillService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        backfillService = new PriceRollupBackfillService(priceRollupJdbcRepository);
+    }
+
+    @Test
+    void backfillNextMonth_shouldResumeFromOldestRolledUpMonthAndWalkBackwards() {
+        // given
+        when(priceRollupJdbcRepository.findOldestTickDate()).thenReturn(Optional.of(LocalDateTime.of(2024, 11, 14, 9, 30)));
+        when(priceRollupJdbcRepository.findOldestMonthlyBucket()).thenReturn(Optional.of(LocalDateTime.of(2025, 1, 1, 0, 0)));
+
+        // when
+        for (int run = 0; run < 5; run++) {
+            backfillService.backfillNextMonth();
+        }
+
+        // then
+        InOrder inOrder = inOrder(priceRollupJdbcRepository);
+        inOrder.verify(priceRollupJdbcRepository).rebuild(LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0));
+        inOrder.verify(priceRollupJdbcRepository).rebuild(LocalDateTime.of(2024, 12, 1, 0, 0), LocalDateTime.of(2025, 1, 1, 0, 0));
+        inOrder.verify(priceRollupJdbcRepository).rebuild(LocalDateTime.of(2024, 11, 1, 0, 0), LocalDateTime.of(2024, 12, 1, 0, 0));
+        verify(priceRollupJdbcRepository, times(3)).rebuild(any(), any());
+        verify(priceRollupJdbcRepository, times(1)).findOldestTickDate();
+        assertTrue(backfillService.isComplete());
+    }
+
+    @Test
+    void backfillNextMonth_shouldStartFromCurrentMonthWhenNothingIsRolledUp() {
+        // given
+        LocalDateTime currentMonth = LocalDateTime.now().toLocalDate().withDayOfMonth(1).atStartOfDay();
+        when(priceRollupJdbcRepository.findOldestTickDate()).thenReturn(Optional.of(currentMonth.plusHours(5)));
+        when(priceRollupJdbcRepository.findOldestMonthlyBucket()).thenReturn(Optional.empty());
+
+        // when
+        backfillService.backfillNextMonth();
+        backfillService.backfillNextMonth();
+
+        // then
+        verify(priceRollupJdbcRepository).rebuild(currentMonth, currentMonth.plusMonths(1));
+        assertTrue(backfillService.isComplete());
+    }
+
+    @Test
+    void backfillNextMonth_shouldFinishImmediatelyWithoutTicks() {
+        // given
+        when(priceRollupJdbcRepository.findOldestTickDate()).thenReturn(Optional.empty());
+
+        // when
+        backfillService.backfillNextMonth();
+
+        // then
+        assertTrue(backfillService.isComplete());
+        verify(priceRollupJdbcRepository, never()).rebuild(any(), any());
+    }
+}
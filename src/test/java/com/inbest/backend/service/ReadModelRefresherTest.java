@@ -0,0 +1,107 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.event.ReadModelRefreshedEvent;
+import com.inbest.backend.repository.ReadModelJdbcRepository;
+import com.inbest.backend.repository.ReadModelJdbcRepository.ReadModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReadModelRefresherTest {
+
+    @Mock
+    private ReadModelJdbcRepository readModelJdbcRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReadModelRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        refresher = new ReadModelRefresher(readModelJdbcRepository, eventPublisher, meterRegistry, 60_000);
+    }
+
+    @Test
+    void isCurrent_shouldBeFalseBeforeTheFirstRefresh() {
+        // then
+        assertFalse(refresher.isCurrent(ReadModel.WEIGHTED_RETURNS));
+        assertTrue(Double.isNaN(staleness(ReadModel.WEIGHTED_RETURNS)));
+    }
+
+    @Test
+    void refreshAll_shouldRefreshEverySnapshotWhoseViewExists() {
+        // given
+        when(readModelJdbcRepository.viewExists(ReadModel.WEIGHTED_RETURNS)).thenReturn(true);
+        when(readModelJdbcRepository.viewExists(ReadModel.NORMALIZED_RETURNS)).thenReturn(false);
+
+        // when
+        refresher.refreshAll();
+
+        // then
+        verify(readModelJdbcRepository).refresh(ReadModel.WEIGHTED_RETURNS);
+        verify(readModelJdbcRepository, never()).refresh(ReadModel.NORMALIZED_RETURNS);
+        assertTrue(refresher.isCurrent(ReadModel.WEIGHTED_RETURNS));
+        assertFalse(refresher.isCurrent(ReadModel.NORMALIZED_RETURNS));
+        assertEquals(1, meterRegistry.get("read.model.refresh").tag("read_model", ReadModel.WEIGHTED_RETURNS.getSnapshot()).timer().count());
+        assertTrue(staleness(ReadModel.WEIGHTED_RETURNS) >= 0);
+    }
+
+    @Test
+    void refreshAll_shouldKeepReadingTheViewWhenRefreshFails() {
+        // given
+        when(readModelJdbcRepository.viewExists(any())).thenReturn(true);
+        doThrow(new QueryTimeoutException("timeout")).when(readModelJdbcRepository).refresh(ReadModel.NORMALIZED_RETURNS);
+
+        // when
+        refresher.refreshAll();
+
+        // then
+        assertTrue(refresher.isCurrent(ReadModel.WEIGHTED_RETURNS));
+        assertFalse(refresher.isCurrent(ReadModel.NORMALIZED_RETURNS));
+        assertEquals(1.0, meterRegistry.get("read.model.refresh.failures").tag("read_model", ReadModel.NORMALIZED_RETURNS.getSnapshot()).counter().count());
+    }
+
+    @Test
+    void refreshAll_shouldAnnounceOnlyRefreshesThatChangedRows() {
+        // given
+        when(readModelJdbcRepository.viewExists(any())).thenReturn(true);
+        when(readModelJdbcRepository.refresh(ReadModel.WEIGHTED_RETURNS)).thenReturn(0L);
+        when(readModelJdbcRepository.refresh(ReadModel.NORMALIZED_RETURNS)).thenReturn(3L);
+
+        // when
+        refresher.refreshAll();
+
+        // then
+        verify(eventPublisher).publishEvent(new ReadModelRefreshedEvent(ReadModel.NORMALIZED_RETURNS));
+        verify(eventPublisher, never()).publishEvent(new ReadModelRefreshedEvent(ReadModel.WEIGHTED_RETURNS));
+    }
+
+    @Test
+    void isCurrent_shouldExpireAfterMaxStaleness() {
+        // given
+        ReadModelRefresher strict = new ReadModelRefresher(readModelJdbcRepository, eventPublisher, new SimpleMeterRegistry(), -1);
+        when(readModelJdbcRepository.viewExists(any())).thenReturn(true);
+
+        // when
+        strict.refreshAll();
+
+        // then
+        assertFalse(strict.isCurrent(ReadModel.WEIGHTED_RETURNS));
+    }
+
+    private double staleness(ReadModel model) {
+        return meterRegistry.get("read.model.staleness").tag("read_model", model.getSnapshot()).gauge().value();
+    }
+}
@@ -0,0 +1,100 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.model.TimeSeries;
+import com.inbest.backend.repository.TimeSeriesJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockPriceHistoryStoreTest {
+
+    @Mock
+    private TimeSeriesJdbcRepository timeSeriesJdbcRepository;
+
+    private StockPriceHistoryStore store;
+
+    private final LocalDateTime start = LocalDateTime.of(2025, 1, 30, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Tiny chunks so lookups cross chunk boundaries
+        store = new StockPriceHistoryStore(timeSeriesJdbcRepository, 400, 3);
+        for (int hour = 0; hour < 24 * 4; hour += 6) {
+            store.append("SPY", start.plusHours(hour), 100 + hour);
+        }
+    }
+
+    @Test
+    void priceBefore_shouldReturnLastPriceStrictlyBefore() {
+        // when / then
+        assertTrue(Double.isNaN(store.priceBefore("SPY", start)));
+        assertEquals(100, store.priceBefore("SPY", start.plusHours(1)));
+        assertEquals(100, store.priceBefore("SPY", start.plusHours(6)));
+        assertEquals(106, store.priceBefore("SPY", start.plusHours(7)));
+        assertEquals(190, store.priceBefore("SPY", start.plusDays(30)));
+        assertTrue(Double.isNaN(store.priceBefore("QQQ", start.plusDays(1))));
+    }
+
+    @Test
+    void priceAfter_shouldReturnFirstPriceStrictlyAfter() {
+        // when / then
+        assertEquals(100, store.priceAfter("SPY", start.minusDays(1)));
+        assertEquals(106, store.priceAfter("SPY", start));
+        assertEquals(124, store.priceAfter("SPY", start.plusHours(19)));
+        assertTrue(Double.isNaN(store.priceAfter("SPY", start.plusHours(90))));
+    }
+
+    @Test
+    void append_shouldPlaceLatePointsInOrderAndIgnoreDuplicates() {
+        // given
+        store.append("SPY", start.plusHours(3), 103);
+        store.append("SPY", start.plusHours(6), 999);
+
+        // when
+        TimeSeries prices = store.prices("SPY", start, start.plusHours(12));
+
+        // then
+        assertEquals(3, prices.size());
+        assertEquals(100, prices.valueAt(0));
+        assertEquals(103, prices.valueAt(1));
+        assertEquals(106, prices.valueAt(2));
+        assertEquals(17, store.pointCount());
+    }
+
+    @Test
+    void rollupReturns_shouldComputeFirstToLastChangePerBucket() {
+        // when
+        TimeSeries daily = store.rollupReturns("SPY", start, start.plusDays(4), StockPriceHistoryStore.Resolution.DAY);
+        TimeSeries monthly = store.rollupReturns("SPY", start, start.plusDays(4), StockPriceHistoryStore.Resolution.MONTH);
+
+        // then
+        assertEquals(4, daily.size());
+        assertEquals(start, daily.dateAt(0));
+        assertEquals((118 - 100) / 100.0 * 100, daily.valueAt(0), 1e-9);
+        assertEquals((142 - 124) / 124.0 * 100, daily.valueAt(1), 1e-9);
+        assertEquals(2, monthly.size());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 0, 0), monthly.dateAt(0));
+        assertEquals((142 - 100) / 100.0 * 100, monthly.valueAt(0), 1e-9);
+        assertEquals(LocalDateTime.of(2025, 2, 1, 0, 0), monthly.dateAt(1));
+    }
+
+    @Test
+    void covers_shouldRequireLoadAndHorizon() {
+        // given
+        assertFalse(store.covers(LocalDateTime.now()));
+
+        // when
+        store.load();
+
+        // then
+        assertTrue(store.covers(LocalDateTime.now().minusDays(10)));
+        assertFalse(store.covers(LocalDateTime.now().minusDays(500)));
+        assertEquals(16, store.pointCount());
+    }
+}
@@ -0,0 +1,58 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.repository.StockPriceJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class StockPriceRetentionServiceTest {
+
+    @Mock
+    private StockPriceJdbcRepository stockPriceJdbcRepository;
+
+    @Mock
+    private PriceRollupBackfillService priceRollupBackfillService;
+
+    private StockPriceRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        retentionService = new StockPriceRetentionService(stockPriceJdbcRepository, priceRollupBackfillService, 730);
+    }
+
+    @Test
+    void dropExpiredTicks_shouldWaitForTheRollupBackfill() {
+        // given
+        when(priceRollupBackfillService.isComplete()).thenReturn(false);
+
+        // when
+        retentionService.dropExpiredTicks();
+
+        // then
+        verify(stockPriceJdbcRepository, never()).dropRawPricesBefore(any());
+    }
+
+    @Test
+    void dropExpiredTicks_shouldDropChunksBeforeMonthAlignedCutoff() {
+        // given
+        when(priceRollupBackfillService.isComplete()).thenReturn(true);
+
+        // when
+        retentionService.dropExpiredTicks();
+
+        // then
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(stockPriceJdbcRepository).dropRawPricesBefore(cutoff.capture());
+        LocalDateTime expected = LocalDateTime.now().minusDays(730).toLocalDate().withDayOfMonth(1).atStartOfDay();
+        assertEquals(expected, cutoff.getValue());
+    }
+}
@@ -0,0 +1,73 @@
+package com.inbest.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickerPortfolioIndexTest {
+
+    @Test
+    void addAndRemove_shouldKeepSortedDistinctIds() {
+        // given
+        TickerPortfolioIndex index = new TickerPortfolioIndex();
+
+        // when
+        index.add("AAPL", 7);
+        index.add("AAPL", 3);
+        index.add("AAPL", 5);
+        index.add("AAPL", 3);
+        index.add("MSFT", 1);
+        int[] before = index.portfoliosHolding("AAPL");
+        index.remove("AAPL", 5);
+        index.remove("MSFT", 1);
+
+        // then
+        assertArrayEquals(new int[]{3, 5, 7}, before);
+        assertArrayEquals(new int[]{3, 7}, index.portfoliosHolding("AAPL"));
+        assertEquals(0, index.portfoliosHolding("MSFT").length);
+        assertEquals(1, index.tickerCount());
+    }
+
+    @Test
+    void replaceAll_shouldGroupPairsByTicker() {
+        // given
+        TickerPortfolioIndex index = new TickerPortfolioIndex();
+        index.add("TSLA", 99);
+
+        // when
+        index.replaceAll(new String[]{"AAPL", "MSFT", "AAPL", "AAPL"}, new int[]{4, 2, 1, 4});
+
+        // then
+        assertArrayEquals(new int[]{1, 4}, index.portfoliosHolding("AAPL"));
+        assertArrayEquals(new int[]{2}, index.portfoliosHolding("MSFT"));
+        assertEquals(0, index.portfoliosHolding("TSLA").length);
+    }
+
+    @Test
+    void estimatedFootprint_shouldStayNearFourBytesPerHolding() {
+        // given
+        int portfolios = 100_000;
+        int holdingsPerPortfolio = 20;
+        int tickers = 5_000;
+        String[] tickerSymbols = new String[portfolios * holdingsPerPortfolio];
+        int[] portfolioIds = new int[tickerSymbols.length];
+        Random random = new Random(42);
+        for (int portfolio = 0; portfolio < portfolios; portfolio++) {
+            for (int holding = 0; holding < holdingsPerPortfolio; holding++) {
+                int i = portfolio * holdingsPerPortfolio + holding;
+                tickerSymbols[i] = "T" + random.nextInt(tickers);
+                portfolioIds[i] = portfolio;
+            }
+        }
+        TickerPortfolioIndex index = new TickerPortfolioIndex();
+
+        // when
+        index.replaceAll(tickerSymbols, portfolioIds);
+
+        // then
+        // 2M holdings at 4 bytes each plus per-ticker overhead, versus roughly 50 bytes per holding for Set<Integer>
+        assertTrue(index.estimatedFootprintBytes() < 9L * 1024 * 1024, "footprint " + index.estimatedFootprintBytes());
+    }
+}
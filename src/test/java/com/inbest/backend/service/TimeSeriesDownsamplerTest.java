@@ -0,0 +1,108 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.model.TimeSeries;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeSeriesDownsamplerTest {
+
+    @Test
+    void downsample_shouldReturnShortSeriesUnchanged() {
+        // given
+        TimeSeries series = series(new double[]{1, 2, 3});
+
+        // when
+        TimeSeries reduced = TimeSeriesDownsampler.downsample(series, 10);
+
+        // then
+        assertSame(series, reduced);
+    }
+
+    @Test
+    void downsample_shouldKeepEndpointsAndRequestedCount() {
+        // given
+        double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.sin(i / 20.0);
+        }
+        TimeSeries series = series(values);
+
+        // when
+        TimeSeries reduced = TimeSeriesDownsampler.downsample(series, 50);
+
+        // then
+        assertEquals(50, reduced.size());
+        assertEquals(series.timeAt(0), reduced.timeAt(0));
+        assertEquals(series.timeAt(999), reduced.timeAt(49));
+        for (int i = 1; i < reduced.size(); i++) {
+            assertTrue(reduced.timeAt(i) > reduced.timeAt(i - 1));
+        }
+    }
+
+    @Test
+    void largestTriangleThreeBuckets_shouldKeepPeaksAndTroughs() {
+        // given
+        double[] values = new double[100];
+        values[37] = 50;
+        values[71] = -50;
+        TimeSeries series = series(values);
+
+        // when
+        int[] selected = TimeSeriesDownsampler.largestTriangleThreeBuckets(series.timeColumn(), series.valueColumn(), series.size(), 10);
+
+        // then
+        assertEquals(10, selected.length);
+        assertTrue(contains(selected, 37));
+        assertTrue(contains(selected, 71));
+    }
+
+    @Test
+    void largestTriangleThreeBuckets_shouldHandleDegenerateCounts() {
+        // given
+        TimeSeries series = series(new double[]{1, 5, 2, 8, 3});
+
+        // when / then
+        assertArrayEquals(new int[]{0, 4}, TimeSeriesDownsampler.largestTriangleThreeBuckets(series.timeColumn(), series.valueColumn(), 5, 2));
+        assertArrayEquals(new int[]{0}, TimeSeriesDownsampler.largestTriangleThreeBuckets(series.timeColumn(), series.valueColumn(), 5, 1));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, TimeSeriesDownsampler.largestTriangleThreeBuckets(series.timeColumn(), series.valueColumn(), 5, 5));
+    }
+
+    @Test
+    void downsample_shouldKeepTheExactDecimalsOfKeptPoints() {
+        // given NUMERIC values whose scale and digits a double would not carry
+        TimeSeries series = new TimeSeries(2);
+        for (int i = 0; i < 100; i++) {
+            series.add(1_700_000_000_000L + i * 3_600_000L, i == 40 ? new BigDecimal("12.340000") : new BigDecimal("0.100000000000000000001"));
+        }
+
+        // when
+        TimeSeries reduced = TimeSeriesDownsampler.downsample(series, 10);
+
+        // then
+        assertEquals(10, reduced.size());
+        for (int i = 0; i < reduced.size(); i++) {
+            String expected = reduced.timeAt(i) == series.timeAt(40) ? "12.340000" : "0.100000000000000000001";
+            assertEquals(expected, reduced.decimalAt(i).toPlainString());
+        }
+    }
+
+    private static TimeSeries series(double[] values) {
+        TimeSeries series = new TimeSeries(2);
+        for (int i = 0; i < values.length; i++) {
+            series.add(1_700_000_000_000L + i * 3_600_000L, values[i]);
+        }
+        return series;
+    }
+
+    private static boolean contains(int[] indices, int index) {
+        for (int candidate : indices) {
+            if (candidate == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
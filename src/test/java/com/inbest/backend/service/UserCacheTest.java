@@ -0,0 +1,106 @@
+package com.inbest.backend.service;
+
+import com.inbest.backend.model.User;
+import com.inbest.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final User john = User.builder().id(1).username("johndoe").build();
+    private final User jane = User.builder().id(2).username("janedoe").build();
+    private final User max = User.builder().id(3).username("maxdoe").build();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(userRepository.findByUsername("johndoe")).thenReturn(Optional.of(john));
+        when(userRepository.findByUsername("janedoe")).thenReturn(Optional.of(jane));
+        when(userRepository.findByUsername("maxdoe")).thenReturn(Optional.of(max));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(john));
+    }
+
+    @Test
+    void findByUsername_shouldServeRepeatedLookupsFromMemory() {
+        // given
+        UserCache cache = new UserCache(userRepository, 60_000, 100);
+
+        // when
+        cache.findByUsername("johndoe");
+        Optional<User> user = cache.findByUsername("johndoe");
+
+        // then
+        assertSame(john, user.orElseThrow());
+        verify(userRepository, times(1)).findByUsername("johndoe");
+    }
+
+    @Test
+    void findById_shouldShareEntriesWithUsernameLookups() {
+        // given
+        UserCache cache = new UserCache(userRepository, 60_000, 100);
+        cache.findByUsername("johndoe");
+
+        // when
+        Optional<User> user = cache.findById(1);
+
+        // then
+        assertSame(john, user.orElseThrow());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void findByUsername_shouldReloadExpiredEntries() {
+        // given
+        UserCache cache = new UserCache(userRepository, 0, 100);
+
+        // when
+        cache.findByUsername("johndoe");
+        cache.findByUsername("johndoe");
+
+        // then
+        verify(userRepository, times(2)).findByUsername("johndoe");
+    }
+
+    @Test
+    void findByUsername_shouldEvictLeastRecentlyUsedBeyondMaxSize() {
+        // given
+        UserCache cache = new UserCache(userRepository, 60_000, 2);
+        cache.findByUsername("johndoe");
+        cache.findByUsername("janedoe");
+        cache.findByUsername("johndoe");
+
+        // when
+        cache.findByUsername("maxdoe");
+        cache.findByUsername("johndoe");
+        cache.findById(2);
+
+        // then
+        assertEquals(2, cache.size());
+        verify(userRepository, times(1)).findByUsername("johndoe");
+        verify(userRepository, times(1)).findById(2L);
+    }
+
+    @Test
+    void invalidate_shouldForceNextLookupToReadTheRow() {
+        // given
+        UserCache cache = new UserCache(userRepository, 60_000, 100);
+        cache.findByUsername("johndoe");
+
+        // when
+        cache.invalidate(john);
+        cache.findByUsername("johndoe");
+
+        // then
+        verify(userRepository, times(2)).findByUsername("johndoe");
+    }
+}
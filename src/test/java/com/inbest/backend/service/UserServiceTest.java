@@ -2,6 +2,7 @@ package com.inbest.backend.service;
 
 import com.inbest.backend.dto.UserUpdateDTO;
 import com.inbest.backend.exception.UserNotFoundException;
+import com.inbest.backend.model.AuthenticatedUser;
 import com.inbest.backend.model.User;
 import com.inbest.backend.repository.UserRepository;
 import org.junit.jupiter.api.AfterEach;
@@ -14,6 +15,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,6 +26,12 @@ class UserServiceTest {
     @Mock
     private UserRepository repository;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -73,6 +81,7 @@ class UserServiceTest {
         assertEquals("UpdatedName", user.getName());
         assertEquals("UpdatedSurname", user.getSurname());
         verify(repository).save(user);
+        verify(userCache).invalidate(user);
     }
 
     @Test
@@ -90,4 +99,68 @@ class UserServiceTest {
         assertThrows(UserNotFoundException.class, () -> userService.updateUserNameAndSurname(dto));
     }
 
+    @Test
+    void getCurrentUser_shouldReturnAuthenticatedPrincipalWithoutLookup() {
+        // given
+        User user = User.builder().id(7).username("johndoe").build();
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(user);
+
+        // when
+        User current = userService.getCurrentUser();
+
+        // then
+        assertSame(user, current);
+        verifyNoInteractions(repository, userCache);
+    }
+
+    @Test
+    void getCurrentUser_shouldResolveJwtPrincipalThroughUserCache() {
+        // given
+        User user = User.builder().id(7).username("johndoe").build();
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(new AuthenticatedUser(7, "johndoe", "ROLE_USER", true, true));
+        when(userCache.findById(7)).thenReturn(Optional.of(user));
+
+        // when
+        User current = userService.getCurrentUser();
+
+        // then
+        assertSame(user, current);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void searchUsers_shouldNormalizeTermEscapeWildcardsAndPage() {
+        // given
+        User user = User.builder().id(3).username("john_doe").build();
+        when(repository.searchUsers("john_d%", "john\\_d\\%", 20, 40)).thenReturn(List.of(user));
+
+        // when
+        List<User> users = userService.searchUsers("  John_D% ", 3, 20);
+
+        // then
+        assertEquals(List.of(user), users);
+    }
+
+    @Test
+    void searchUsers_shouldReturnEmptyPageWhenOffsetOverflowsInt() {
+        // when
+        List<User> users = userService.searchUsers("john", 21474838, 100);
+
+        // then
+        assertTrue(users.isEmpty());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void searchUsers_shouldNotQueryForBlankTerm() {
+        // when
+        List<User> users = userService.searchUsers("   ", 1, 20);
+
+        // then
+        assertTrue(users.isEmpty());
+        verifyNoInteractions(repository);
+    }
+
 }
\ No newline at end of file
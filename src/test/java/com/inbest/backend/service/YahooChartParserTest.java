@@ -0,0 +1,118 @@
+package com.inbest.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inbest.backend.service.YahooChartParser.ChartSeries;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class YahooChartParserTest {
+
+    private final YahooChartParser parser = new YahooChartParser();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parse_shouldMatchMapDeserialization() throws IOException {
+        // given
+        byte[] payload = fixture("chart-aapl-1mo.json");
+
+        // when
+        ChartSeries series = parser.parse(payload);
+        Map<String, Object> tree = objectMapper.readValue(payload, Map.class);
+
+        // then
+        List<Number> timestamps = timestamps(tree);
+        List<Number> closes = closes(tree);
+        assertEquals(22, series.size());
+        assertEquals(timestamps.size(), series.size());
+        for (int i = 0; i < series.size(); i++) {
+            assertEquals(timestamps.get(i).longValue(), series.timestampAt(i));
+            assertEquals(closes.get(i).doubleValue(), series.closeAt(i));
+        }
+        assertEquals(21, series.lastCloseIndex());
+    }
+
+    @Test
+    void parse_shouldKeepNullClosesAsNaN() throws IOException {
+        // given
+        byte[] payload = fixture("chart-msft-trailing-null.json");
+
+        // when
+        ChartSeries series = parser.parse(payload);
+
+        // then
+        assertEquals(5, series.size());
+        assertTrue(Double.isNaN(series.closeAt(4)));
+        assertEquals(3, series.lastCloseIndex());
+    }
+
+    @Test
+    void parse_shouldReturnEmptySeriesWhenSymbolIsUnknown() throws IOException {
+        // when
+        ChartSeries series = parser.parse(fixture("chart-not-found.json"));
+
+        // then
+        assertEquals(0, series.size());
+        assertEquals(-1, series.lastCloseIndex());
+    }
+
+    @Test
+    void parse_shouldAllocateLessThanMapDeserialization() throws IOException {
+        // given
+        byte[] payload = fixture("chart-aapl-1mo.json");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        for (int i = 0; i < 500; i++) {
+            parser.parse(payload);
+            objectMapper.readValue(payload, Map.class);
+        }
+
+        // when
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 200; i++) {
+            parser.parse(payload);
+        }
+        long streaming = threads.getThreadAllocatedBytes(threadId) - before;
+
+        before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 200; i++) {
+            objectMapper.readValue(payload, Map.class);
+        }
+        long tree = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // then
+        assertTrue(streaming < tree, "streaming=" + streaming + " tree=" + tree);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Number> timestamps(Map<String, Object> tree) {
+        Map<String, Object> chart = (Map<String, Object>) tree.get("chart");
+        Map<String, Object> result = ((List<Map<String, Object>>) chart.get("result")).get(0);
+        return (List<Number>) result.get("timestamp");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Number> closes(Map<String, Object> tree) {
+        Map<String, Object> chart = (Map<String, Object>) tree.get("chart");
+        Map<String, Object> result = ((List<Map<String, Object>>) chart.get("result")).get(0);
+        Map<String, Object> indicators = (Map<String, Object>) result.get("indicators");
+        return (List<Number>) ((List<Map<String, Object>>) indicators.get("quote")).get(0).get("close");
+    }
+
+    private static byte[] fixture(String name) throws IOException {
+        try (InputStream in = YahooChartParserTest.class.getResourceAsStream("/yahoo/" + name)) {
+            assertNotNull(in, name);
+            return in.readAllBytes();
+        }
+    }
+}